@@ -6,7 +6,7 @@ import IncidentList from '@/components/IncidentList';
 import IncidentForm from '@/components/IncidentForm';
 import Navigation from '@/components/Navigation';
 import { useAuthenticatedAPI } from '@/lib/useAuthenticatedAPI';
-import { Incident } from '@/lib/types';
+import { Incident, IncidentChange } from '@/lib/types';
 import { useAuth } from '@/context/AuthContext';
 
 export default function Home() {
@@ -28,6 +28,37 @@ export default function Home() {
     }
   }, [filter, isLoading, accessToken]);
 
+  useEffect(() => {
+    if (isLoading || !accessToken) {
+      return;
+    }
+    const status = filter === 'all' ? undefined : filter === 'open' ? 'OPEN' : 'RESOLVED';
+    return incidentAPI.subscribeToChanges((change: IncidentChange) => {
+      if (change.type === 'RESYNC') {
+        loadIncidents();
+        return;
+      }
+      setIncidents((current) => {
+        const others = current.filter((incident) => incident.id !== change.incidentId);
+        // Archived incidents are only listed with ?archived=true, so they leave the live list like deleted ones
+        if (change.type === 'DELETED' || change.type === 'ARCHIVED') {
+          return others;
+        }
+        if (!change.incident) {
+          return others;
+        }
+        if (status && change.incident.status !== status) {
+          return others;
+        }
+        const existing = current.find((incident) => incident.id === change.incidentId);
+        const updated = { ...existing, ...change.incident };
+        return existing
+          ? current.map((incident) => (incident.id === change.incidentId ? updated : incident))
+          : [updated, ...current];
+      });
+    }, { status });
+  }, [filter, isLoading, accessToken]);
+
   const loadIncidents = async () => {
     setLoading(true);
     setError(null);
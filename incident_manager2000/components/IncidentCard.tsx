@@ -1,6 +1,6 @@
 'use client';
 
-import { Incident } from '@/lib/types';
+import { Incident, IncidentStatus, NEXT_STATUSES } from '@/lib/types';
 import { useAuthenticatedAPI } from '@/lib/useAuthenticatedAPI';
 import { useAuthorization } from '@/components/ProtectedByRole';
 import { useState } from 'react';
@@ -12,6 +12,7 @@ interface IncidentCardProps {
 
 export default function IncidentCard({ incident, onRefresh }: IncidentCardProps) {
   const [updating, setUpdating] = useState(false);
+  const [error, setError] = useState<string | null>(null);
   const { canDeleteIncidents } = useAuthorization();
   const { incidentAPI } = useAuthenticatedAPI();
 
@@ -45,11 +46,23 @@ export default function IncidentCard({ incident, onRefresh }: IncidentCardProps)
     }
   };
 
+  const statusLabels: Record<IncidentStatus, string> = {
+    OPEN: 'Open',
+    IN_PROGRESS: 'In Progress',
+    RESOLVED: 'Resolved',
+    CLOSED: 'Closed',
+  };
+  const currentStatus = incident.status as IncidentStatus;
+  const statusOptions = [currentStatus, ...(NEXT_STATUSES[currentStatus] ?? [])];
+
   const handleStatusChange = async (newStatus: string) => {
     setUpdating(true);
+    setError(null);
     try {
       await incidentAPI.update(incident.id!, { ...incident, status: newStatus });
       onRefresh();
+    } catch (err) {
+      setError(err instanceof Error ? err.message : 'Failed to update incident');
     } finally {
       setUpdating(false);
     }
@@ -123,10 +136,9 @@ export default function IncidentCard({ incident, onRefresh }: IncidentCardProps)
           value={incident.status}
           className="px-3 py-2 border border-gray-300 dark:border-gray-600 rounded dark:bg-gray-700 dark:text-white text-sm focus:outline-none focus:ring-2 focus:ring-blue-500"
         >
-          <option value="OPEN">Open</option>
-          <option value="IN_PROGRESS">In Progress</option>
-          <option value="RESOLVED">Resolved</option>
-          <option value="CLOSED">Closed</option>
+          {statusOptions.map((status) => (
+            <option key={status} value={status}>{statusLabels[status] ?? status}</option>
+          ))}
         </select>
 
         {canDeleteIncidents && (
@@ -139,6 +151,10 @@ export default function IncidentCard({ incident, onRefresh }: IncidentCardProps)
           </button>
         )}
       </div>
+
+      {error && (
+        <p className="mt-2 text-sm text-red-600 dark:text-red-400">{error}</p>
+      )}
     </div>
   );
 }
@@ -1,3 +1,5 @@
+import { IncidentChange } from './types';
+
 const API_BASE_URL = process.env.BACKEND_URL || 'http://localhost:8082/api';
 
 export const fetchWithToken = async (
@@ -35,19 +37,31 @@ export const fetchWithToken = async (
   return response;
 };
 
+// List endpoints return one keyset page at a time; follow X-Next-Cursor until the last page
+const fetchAllPages = async (url: string, token: string | undefined, error: string) => {
+  const items: any[] = [];
+  let cursor: string | null = null;
+  do {
+    const pageUrl = new URL(url);
+    if (cursor) pageUrl.searchParams.set('after', cursor);
+    const response = await fetchWithToken(pageUrl.toString(), { token });
+    if (!response.ok) {
+      const text = await response.text();
+      console.error('[API] Error response:', text);
+      throw new Error(error + ': ' + response.status);
+    }
+    items.push(...(await response.json()));
+    cursor = response.headers.get('X-Next-Cursor');
+  } while (cursor);
+  return items;
+};
+
 export const incidentAPI = {
   async getAll(token?: string) {
     const url = `${API_BASE_URL}/incidents`;
     console.log('[incidentAPI.getAll] Calling', url, 'with token:', token ? token.substring(0, 20) + '...' : 'none');
-    const response = await fetchWithToken(url, { token });
-    console.log('[incidentAPI.getAll] Response status:', response.status);
-    if (!response.ok) {
-      const text = await response.text();
-      console.error('[incidentAPI.getAll] Error response:', text);
-      throw new Error('Failed to fetch incidents: ' + response.status);
-    }
-    const data = await response.json();
-    console.log('[incidentAPI.getAll] Success, got', data.length || 0, 'incidents');
+    const data = await fetchAllPages(url, token, 'Failed to fetch incidents');
+    console.log('[incidentAPI.getAll] Success, got', data.length, 'incidents');
     return data;
   },
 
@@ -60,32 +74,22 @@ export const incidentAPI = {
   async getByStatus(status: string, token?: string) {
     const url = `${API_BASE_URL}/incidents/status/${status}`;
     console.log('[incidentAPI.getByStatus] Calling', url, 'status:', status);
-    const response = await fetchWithToken(url, { token });
-    console.log('[incidentAPI.getByStatus] Response status:', response.status);
-    if (!response.ok) {
-      const text = await response.text();
-      console.error('[incidentAPI.getByStatus] Error response:', text);
-      throw new Error('Failed to fetch incidents by status');
-    }
-    return response.json();
+    return fetchAllPages(url, token, 'Failed to fetch incidents by status');
   },
 
   async getByPriority(priority: string, token?: string) {
-    const response = await fetchWithToken(`${API_BASE_URL}/incidents/priority/${priority}`, { token });
-    if (!response.ok) throw new Error('Failed to fetch incidents by priority');
-    return response.json();
+    const url = `${API_BASE_URL}/incidents/priority/${encodeURIComponent(priority)}`;
+    return fetchAllPages(url, token, 'Failed to fetch incidents by priority');
   },
 
   async getByReporter(email: string, token?: string) {
-    const response = await fetchWithToken(`${API_BASE_URL}/incidents/reporter/${email}`, { token });
-    if (!response.ok) throw new Error('Failed to fetch incidents by reporter');
-    return response.json();
+    const url = `${API_BASE_URL}/incidents/reporter/${encodeURIComponent(email)}`;
+    return fetchAllPages(url, token, 'Failed to fetch incidents by reporter');
   },
 
   async getByAssignee(email: string, token?: string) {
-    const response = await fetchWithToken(`${API_BASE_URL}/incidents/assigned/${email}`, { token });
-    if (!response.ok) throw new Error('Failed to fetch incidents by assignee');
-    return response.json();
+    const url = `${API_BASE_URL}/incidents/assigned/${encodeURIComponent(email)}`;
+    return fetchAllPages(url, token, 'Failed to fetch incidents by assignee');
   },
 
   async create(data: any, token?: string) {
@@ -104,10 +108,80 @@ export const incidentAPI = {
       body: JSON.stringify(data),
       token,
     });
+    if (response.status === 409) throw new Error('This status change is not allowed');
     if (!response.ok) throw new Error('Failed to update incident');
     return response.json();
   },
 
+  subscribeToChanges(
+    onChange: (change: IncidentChange) => void,
+    filters: { status?: string; assignedTo?: string } = {},
+    token?: string
+  ) {
+    const controller = new AbortController();
+    const params = new URLSearchParams();
+    if (filters.status) params.set('status', filters.status);
+    if (filters.assignedTo) params.set('assignedTo', filters.assignedTo);
+    const url = `${API_BASE_URL}/incidents/changes?${params.toString()}`;
+
+    // The stream ends on RESYNC, on server-side expiry and on network errors; reconnect with capped exponential
+    // backoff and ask for a reload once reconnected, so changes made while disconnected are not lost
+    const stream = async (resync: boolean) => {
+      const response = await fetchWithToken(url, {
+        token,
+        headers: { Accept: 'text/event-stream' },
+        signal: controller.signal,
+      });
+      if (!response.ok || !response.body) {
+        throw new Error('Failed to subscribe to incident changes: ' + response.status);
+      }
+      if (resync) onChange({ type: 'RESYNC' });
+      const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+      let buffer = '';
+      while (true) {
+        const { value, done } = await reader.read();
+        if (done) return;
+        buffer += value;
+        const events = buffer.split('\n\n');
+        buffer = events.pop() || '';
+        for (const event of events) {
+          const lines = event.split('\n');
+          const type = lines.find((line) => line.startsWith('event:'))?.slice(6).trim();
+          const data = lines
+            .filter((line) => line.startsWith('data:'))
+            .map((line) => line.slice(5))
+            .join('\n');
+          if (type === 'RESYNC') {
+            return;
+          } else if (type && data) {
+            onChange(JSON.parse(data));
+          }
+        }
+      }
+    };
+
+    (async () => {
+      let attempt = 0;
+      let resync = false;
+      while (!controller.signal.aborted) {
+        const startedAt = Date.now();
+        try {
+          await stream(resync);
+        } catch (err) {
+          if (controller.signal.aborted) return;
+          console.error('[incidentAPI.subscribeToChanges] Stream failed:', err);
+        }
+        resync = true;
+        // A connection that stayed up for a while was healthy; start the backoff over
+        attempt = Date.now() - startedAt > 30000 ? 0 : attempt + 1;
+        const delay = Math.min(30000, 1000 * 2 ** Math.min(attempt, 5)) * (0.5 + Math.random() / 2);
+        await new Promise((resolve) => setTimeout(resolve, delay));
+      }
+    })();
+
+    return () => controller.abort();
+  },
+
   async delete(id: number, token?: string) {
     const response = await fetchWithToken(`${API_BASE_URL}/incidents/${id}`, {
       method: 'DELETE',
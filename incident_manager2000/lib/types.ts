@@ -14,6 +14,12 @@ export interface Incident {
   attachments?: string[];
 }
 
+export interface IncidentChange {
+  type: 'CREATED' | 'UPDATED' | 'DELETED' | 'ARCHIVED' | 'RESYNC';
+  incidentId?: number;
+  incident?: Incident;
+}
+
 export interface User {
   id?: number;
   email: string;
@@ -22,5 +28,12 @@ export interface User {
 }
 
 export type IncidentStatus = 'OPEN' | 'IN_PROGRESS' | 'RESOLVED' | 'CLOSED';
+// Mirrors IncidentStatus.nextStatuses() on the backend, which rejects any other change with 409
+export const NEXT_STATUSES: Record<IncidentStatus, IncidentStatus[]> = {
+  OPEN: ['IN_PROGRESS', 'CLOSED'],
+  IN_PROGRESS: ['OPEN', 'RESOLVED'],
+  RESOLVED: ['IN_PROGRESS', 'CLOSED'],
+  CLOSED: [],
+};
 export type IncidentPriority = 'LOW' | 'MEDIUM' | 'HIGH' | 'CRITICAL';
 export type UserRole = 'ADMIN' | 'EMPLOYEE' | 'IT_EMPLOYEE';
@@ -21,6 +21,10 @@ export const useAuthenticatedAPI = () => {
       create: (data: any) => incidentAPI.create(data, accessToken || undefined),
       update: (id: number, data: any) => incidentAPI.update(id, data, accessToken || undefined),
       delete: (id: number) => incidentAPI.delete(id, accessToken || undefined),
+      subscribeToChanges: (
+        onChange: Parameters<typeof incidentAPI.subscribeToChanges>[0],
+        filters?: Parameters<typeof incidentAPI.subscribeToChanges>[1]
+      ) => incidentAPI.subscribeToChanges(onChange, filters, accessToken || undefined),
     },
     userAPI: {
       getAll: () => userAPI.getAll(accessToken || undefined),
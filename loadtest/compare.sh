@@ -0,0 +1,25 @@
+#!/usr/bin/env sh
+# Runs the k6 scenario against a platform-thread and a virtual-thread instance and
+# prints the latency percentiles side by side.
+#
+#   ./mvnw spring-boot:run -Dspring-boot.run.arguments=--server.port=8080
+#   ./mvnw spring-boot:run -Dspring-boot.run.profiles=vthreads -Dspring-boot.run.arguments=--server.port=8081
+#   TOKEN=<bearer token> loadtest/compare.sh http://localhost:8080 http://localhost:8081
+set -e
+
+PLATFORM_URL=${1:-http://localhost:8080}
+VTHREADS_URL=${2:-http://localhost:8081}
+OUT=${OUT:-target/loadtest}
+mkdir -p "$OUT"
+
+k6 run -e BASE_URL="$PLATFORM_URL" -e TOKEN="$TOKEN" -e LABEL=platform \
+    --summary-export="$OUT/platform.json" "$(dirname "$0")/incidents.js"
+k6 run -e BASE_URL="$VTHREADS_URL" -e TOKEN="$TOKEN" -e LABEL=vthreads \
+    --summary-export="$OUT/vthreads.json" "$(dirname "$0")/incidents.js"
+
+for mode in platform vthreads; do
+    echo "== $mode"
+    jq -r --arg m "$mode" '.metrics | to_entries[]
+        | select(.key | startswith($m + "_") or . == "http_req_failed" or . == "http_reqs")
+        | "\(.key): \(.value | del(.thresholds) | tostring)"' "$OUT/$mode.json"
+done
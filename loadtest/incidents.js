@@ -0,0 +1,91 @@
+// k6 load test for the incident read/write paths.
+//
+// Start the backend once per mode and run the same script against each:
+//   platform threads: ./mvnw spring-boot:run
+//   virtual threads:  ./mvnw spring-boot:run -Dspring-boot.run.profiles=vthreads
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e TOKEN=<bearer token> -e LABEL=platform \
+//          --summary-export=target/loadtest-platform.json loadtest/incidents.js
+//
+// SLOW_MS adds client think time while the response is in flight (slow clients).
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+import { Trend } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN;
+const LABEL = __ENV.LABEL || 'run';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000');
+const SLOW_MS = parseInt(__ENV.SLOW_MS || '0');
+
+const listLatency = new Trend(`${LABEL}_list_latency`, true);
+const detailLatency = new Trend(`${LABEL}_detail_latency`, true);
+const writeLatency = new Trend(`${LABEL}_write_latency`, true);
+
+export const options = {
+    scenarios: {
+        readers: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Math.floor(MAX_VUS / 4) },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '1m', target: MAX_VUS },
+                { duration: '30s', target: 0 },
+            ],
+            exec: 'read',
+        },
+        writers: {
+            executor: 'constant-arrival-rate',
+            rate: 20,
+            timeUnit: '1s',
+            duration: '3m',
+            preAllocatedVUs: 50,
+            exec: 'write',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        [`${LABEL}_list_latency`]: ['p(95)<500'],
+        [`${LABEL}_detail_latency`]: ['p(95)<300'],
+    },
+};
+
+const params = {
+    headers: {
+        Authorization: `Bearer ${TOKEN}`,
+        'Content-Type': 'application/json',
+    },
+};
+
+export function read() {
+    const list = http.get(`${BASE_URL}/api/incidents?size=50`, params);
+    listLatency.add(list.timings.duration);
+    check(list, { 'list 200': (r) => r.status === 200 });
+
+    const items = list.status === 200 ? list.json() : [];
+    if (items.length > 0) {
+        const id = items[Math.floor(Math.random() * items.length)].id;
+        const detail = http.get(`${BASE_URL}/api/incidents/${id}`, params);
+        detailLatency.add(detail.timings.duration);
+        check(detail, { 'detail 200': (r) => r.status === 200 });
+    }
+
+    if (SLOW_MS > 0) {
+        sleep(SLOW_MS / 1000);
+    }
+    sleep(Math.random());
+}
+
+export function write() {
+    const body = JSON.stringify({
+        title: `Load test incident ${__VU}-${__ITER}`,
+        description: 'Created by the k6 load test',
+        reportedBy: 'loadtest@example.com',
+        priority: 'LOW',
+        category: 'SOFTWARE',
+    });
+    const created = http.post(`${BASE_URL}/api/incidents`, body, params);
+    writeLatency.add(created.timings.duration);
+    check(created, { 'create 201': (r) => r.status === 201 });
+}
@@ -0,0 +1,103 @@
+package poli.bsk.incidents.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import poli.bsk.incidents.dto.BatchItemResultDTO;
+import poli.bsk.incidents.dto.BatchResultDTO;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.service.IncidentService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// The same N creates or updates sent one incident per request versus one batch request
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class IncidentBatchBenchmark {
+
+    @Param({"100", "1000"})
+    private int incidents;
+
+    private SeededApplication application;
+    private IncidentService incidentService;
+    private IncidentRepository incidentRepository;
+    private List<IncidentDTO> creates;
+    private List<IncidentDTO> updates;
+    private int round;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(0);
+        incidentService = application.getBean(IncidentService.class);
+        incidentRepository = application.getBean(IncidentRepository.class);
+        creates = new ArrayList<>();
+        for (int i = 0; i < incidents; i++) {
+            IncidentDTO dto = new IncidentDTO();
+            dto.setTitle("Incident " + i);
+            dto.setDescription("Reported through the batch import");
+            dto.setReportedBy(SeededApplication.userEmail(i % SeededApplication.USERS));
+            dto.setPriority(IncidentPriority.values()[i % IncidentPriority.values().length]);
+            dto.setCategory(IncidentCategory.values()[i % IncidentCategory.values().length]);
+            creates.add(dto);
+        }
+    }
+
+    // Fresh rows for every iteration so the table size stays the same
+    @Setup(Level.Iteration)
+    public void seedIteration() {
+        incidentRepository.deleteAllInBatch();
+        BatchResultDTO created = incidentService.createIncidents(creates);
+        updates = new ArrayList<>();
+        for (BatchItemResultDTO item : created.getItems()) {
+            IncidentDTO dto = new IncidentDTO();
+            dto.setId(item.getId());
+            updates.add(dto);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public List<IncidentDTO> createOneByOne() {
+        List<IncidentDTO> created = new ArrayList<>(creates.size());
+        for (IncidentDTO dto : creates) {
+            created.add(incidentService.createIncident(dto));
+        }
+        return created;
+    }
+
+    @Benchmark
+    public BatchResultDTO createBatch() {
+        return incidentService.createIncidents(creates);
+    }
+
+    @Benchmark
+    public List<IncidentDTO> updateOneByOne() {
+        String title = "Renamed " + round++;
+        List<IncidentDTO> updated = new ArrayList<>(updates.size());
+        for (IncidentDTO dto : updates) {
+            dto.setTitle(title);
+            updated.add(incidentService.updateIncident(dto.getId(), dto));
+        }
+        return updated;
+    }
+
+    @Benchmark
+    public BatchResultDTO updateBatch() {
+        String title = "Renamed " + round++;
+        for (IncidentDTO dto : updates) {
+            dto.setTitle(title);
+        }
+        return incidentService.updateIncidents(updates);
+    }
+}
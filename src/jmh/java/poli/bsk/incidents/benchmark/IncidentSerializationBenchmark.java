@@ -0,0 +1,49 @@
+package poli.bsk.incidents.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class IncidentSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    private int incidents;
+
+    private SeededApplication application;
+    private ObjectMapper objectMapper;
+    private List<IncidentDTO> details;
+    private List<IncidentSummaryDTO> summaries;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(incidents);
+        objectMapper = application.getBean(ObjectMapper.class);
+        details = application.loadIncidentDetails();
+        summaries = application.loadIncidentSummaries();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public byte[] serializeDetails() {
+        return objectMapper.writeValueAsBytes(details);
+    }
+
+    @Benchmark
+    public byte[] serializeSummaries() {
+        return objectMapper.writeValueAsBytes(summaries);
+    }
+}
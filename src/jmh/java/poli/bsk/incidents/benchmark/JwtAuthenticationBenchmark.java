@@ -0,0 +1,130 @@
+package poli.bsk.incidents.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import poli.bsk.incidents.config.JwtAuthenticationConverter;
+import poli.bsk.incidents.service.PrincipalCache;
+import poli.bsk.incidents.util.AuthenticatedUser;
+import poli.bsk.incidents.util.JwtTokenUtil;
+import poli.bsk.incidents.util.LogSampler;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private SeededApplication application;
+    private JwtTokenUtil jwtTokenUtil;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationConverter converter;
+    private Jwt[] tokens;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int next(int length) {
+            next = (next + 1) % length;
+            return next;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(0);
+        jwtTokenUtil = application.getBean(JwtTokenUtil.class);
+        principalCache = application.getBean(PrincipalCache.class);
+        converter = new JwtAuthenticationConverter(jwtTokenUtil, principalCache, new LogSampler(0));
+        Instant now = Instant.now();
+        tokens = new Jwt[SeededApplication.USERS];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = Jwt.withTokenValue("token-" + i)
+                    .header("alg", "RS256")
+                    .subject("subject-" + i)
+                    .issuedAt(now)
+                    .expiresAt(now.plusSeconds(3600))
+                    .claim("email", SeededApplication.userEmail(i))
+                    .claim("name", "User " + i)
+                    .claim("roles", List.of("Incidents.Read", "Incidents.Write"))
+                    .claim("scp", "access_as_user profile")
+                    .build();
+            converter.convert(tokens[i]);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public Set<String> extractRoles(Cursor cursor) {
+        return jwtTokenUtil.extractRoles(tokens[cursor.next(tokens.length)]);
+    }
+
+    @Benchmark
+    public String extractEmail(Cursor cursor) {
+        return jwtTokenUtil.extractEmail(tokens[cursor.next(tokens.length)]);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convert(Cursor cursor) {
+        return converter.convert(tokens[cursor.next(tokens.length)]);
+    }
+
+    // Authenticate, check a role and describe the caller the way requests did before the identity object
+    @Benchmark
+    public void requestWithClaimLookups(Cursor cursor, Blackhole blackhole) {
+        Jwt jwt = tokens[cursor.next(tokens.length)];
+        String email = jwtTokenUtil.extractEmail(jwt);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(email, null, principalCache.getAuthorities(email));
+        blackhole.consume(authentication.getAuthorities().stream()
+                .anyMatch(auth -> auth.getAuthority().equals("ROLE_" + "admin".toUpperCase())));
+        blackhole.consume(jwtTokenUtil.extractEmail(jwt));
+        blackhole.consume(jwtTokenUtil.extractName(jwt));
+        blackhole.consume(legacyExtractRoles(jwt));
+    }
+
+    @Benchmark
+    public void requestWithIdentity(Cursor cursor, Blackhole blackhole) {
+        Authentication authentication = converter.convert(tokens[cursor.next(tokens.length)]);
+        blackhole.consume(jwtTokenUtil.hasRole(authentication, "admin"));
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        blackhole.consume(user.getEmail());
+        blackhole.consume(user.getDisplayName());
+        blackhole.consume(user.getRoles());
+    }
+
+    private static Set<String> legacyExtractRoles(Jwt jwt) {
+        Set<String> roles = new HashSet<>();
+        List<String> jwtRoles = jwt.getClaimAsStringList("roles");
+        if (jwtRoles != null) {
+            roles.addAll(jwtRoles);
+        }
+        String scope = jwt.getClaimAsString("scp");
+        if (scope != null) {
+            for (String s : scope.split(" ")) {
+                if (!s.isEmpty()) {
+                    roles.add("ROLE_" + s.toUpperCase());
+                }
+            }
+        }
+        if (roles.isEmpty()) {
+            roles.add("ROLE_USER");
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,145 @@
+package poli.bsk.incidents.benchmark;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import poli.bsk.incidents.IncidentsApplication;
+import poli.bsk.incidents.dto.CursorPage;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.model.User;
+import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.repository.UserRepository;
+import poli.bsk.incidents.service.IncidentFilter;
+import poli.bsk.incidents.service.IncidentService;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public final class SeededApplication implements AutoCloseable {
+    public static final int USERS = 1000;
+
+    private static final IncidentStatus[] STATUSES = IncidentStatus.values();
+    private static final IncidentPriority[] PRIORITIES = IncidentPriority.values();
+    private static final IncidentCategory[] CATEGORIES = IncidentCategory.values();
+    private static final String[] ROLES = {"USER", "MANAGER", "ADMIN"};
+    private static final int CHUNK_SIZE = 1000;
+    private static final int PAGE_SIZE = 500;
+
+    private final ConfigurableApplicationContext context;
+
+    private SeededApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static SeededApplication start(int incidents) {
+        SpringApplication application = new SpringApplication(IncidentsApplication.class);
+        ConfigurableApplicationContext context = application.run(
+                "--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--spring.main.web-application-type=none",
+                "--logging.level.root=WARN");
+        SeededApplication seeded = new SeededApplication(context);
+        seeded.seed(incidents);
+        return seeded;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public static String userEmail(int index) {
+        return "user" + index + "@example.com";
+    }
+
+    public List<Incident> loadIncidents() {
+        return transactionTemplate().execute(status -> {
+            List<Incident> incidents = getBean(IncidentRepository.class).findAll();
+            for (Incident incident : incidents) {
+                incident.getComments().size();
+                incident.getAttachments().size();
+            }
+            return incidents;
+        });
+    }
+
+    public List<IncidentDTO> loadIncidentDetails() {
+        IncidentService incidentService = getBean(IncidentService.class);
+        List<IncidentDTO> details = new ArrayList<>();
+        Long after = null;
+        do {
+            CursorPage<IncidentDTO> page = incidentService.getIncidentDetails(IncidentFilter.ALL, null, after, PAGE_SIZE);
+            details.addAll(page.getItems());
+            after = page.getNextCursor();
+        } while (after != null);
+        return details;
+    }
+
+    public List<IncidentSummaryDTO> loadIncidentSummaries() {
+        IncidentService incidentService = getBean(IncidentService.class);
+        List<IncidentSummaryDTO> summaries = new ArrayList<>();
+        Long after = null;
+        do {
+            CursorPage<IncidentSummaryDTO> page = incidentService.getIncidentSummaries(IncidentFilter.ALL, null, after, PAGE_SIZE);
+            summaries.addAll(page.getItems());
+            after = page.getNextCursor();
+        } while (after != null);
+        return summaries;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private void seed(int incidents) {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User(userEmail(i), "User " + i, ROLES[i % ROLES.length]));
+        }
+        transactionTemplate().executeWithoutResult(status -> getBean(UserRepository.class).saveAll(users));
+
+        Instant now = Instant.now();
+        for (int start = 0; start < incidents; start += CHUNK_SIZE) {
+            List<Incident> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(start + CHUNK_SIZE, incidents); i++) {
+                IncidentStatus status = STATUSES[random.nextInt(STATUSES.length)];
+                Instant reportedAt = now.minus(random.nextInt(365 * 24), ChronoUnit.HOURS);
+                boolean resolved = !status.isActive();
+                chunk.add(new Incident(
+                        "Incident " + i + " on host srv-" + random.nextInt(500),
+                        "Users report intermittent failures on service " + random.nextInt(100)
+                                + " after the last deployment; the issue reproduces under load and affects several teams.",
+                        userEmail(random.nextInt(USERS)),
+                        reportedAt,
+                        status,
+                        PRIORITIES[random.nextInt(PRIORITIES.length)],
+                        CATEGORIES[random.nextInt(CATEGORIES.length)],
+                        random.nextBoolean() ? userEmail(random.nextInt(USERS)) : null,
+                        resolved ? "Restarted the affected service and applied the pending patch." : null,
+                        resolved ? reportedAt.plus(random.nextInt(72) + 1, ChronoUnit.HOURS) : null,
+                        new ArrayList<>(List.of(
+                                "Investigating the logs from the affected nodes.",
+                                "Escalated to the platform team for further analysis.")),
+                        new ArrayList<>(List.of("https://files.example.com/incidents/" + i + "/trace.log"))));
+            }
+            transactionTemplate().executeWithoutResult(status -> getBean(IncidentRepository.class).saveAll(chunk));
+        }
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return getBean(TransactionTemplate.class);
+    }
+}
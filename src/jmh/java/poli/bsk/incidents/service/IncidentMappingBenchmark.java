@@ -0,0 +1,61 @@
+package poli.bsk.incidents.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import poli.bsk.incidents.benchmark.SeededApplication;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class IncidentMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int incidents;
+
+    private SeededApplication application;
+    private IncidentService incidentService;
+    private List<Incident> entities;
+    private List<IncidentDTO> dtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = SeededApplication.start(incidents);
+        incidentService = new IncidentService(
+                application.getBean(IncidentRepository.class),
+                event -> { },
+                application.getBean(EntityManagerFactory.class),
+                50,
+                500);
+        entities = application.loadIncidents();
+        dtos = entities.stream().map(incidentService::convertToDTO).toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        application.close();
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) {
+        for (Incident incident : entities) {
+            blackhole.consume(incidentService.convertToDTO(incident));
+        }
+    }
+
+    @Benchmark
+    public void convertToEntity(Blackhole blackhole) {
+        for (IncidentDTO dto : dtos) {
+            blackhole.consume(incidentService.convertToEntity(dto));
+        }
+    }
+}
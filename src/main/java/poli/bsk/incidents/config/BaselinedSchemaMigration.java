@@ -0,0 +1,83 @@
+package poli.bsk.incidents.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// V8: brings databases baselined from the old ddl-auto=update schema in line with V1. Those have identity ids and no
+// sequences, no incidents.version and none of the V1 indexes. Schemas created by V1 only get their sequences checked.
+@Component
+public class BaselinedSchemaMigration implements JavaMigration {
+    private static final Logger log = LoggerFactory.getLogger(BaselinedSchemaMigration.class);
+    // allocationSize of the incident and user @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+    private static final List<String> V1_INDEXES = List.of(
+            "idx_incidents_status_reported_at on incidents (status, reported_at)",
+            "idx_incidents_priority_status on incidents (priority, status)",
+            "idx_incidents_category_status on incidents (category, status)",
+            "idx_incidents_assigned_to_status on incidents (assigned_to, status)",
+            "idx_incidents_reported_by_status on incidents (reported_by, status)",
+            "idx_incidents_reported_at on incidents (reported_at)");
+
+    @Override
+    public MigrationVersion getVersion() { return MigrationVersion.fromVersion("8"); }
+
+    @Override
+    public String getDescription() { return "baselined schema"; }
+
+    @Override
+    public Integer getChecksum() { return null; }
+
+    @Override
+    public boolean canExecuteInTransaction() { return true; }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        if (columnInfo(jdbcTemplate, "incidents", "version", "data_type") == null) {
+            jdbcTemplate.execute("alter table incidents add column version bigint default 0 not null");
+            log.info("Added incidents.version");
+        }
+        migrateIds(jdbcTemplate, "incidents");
+        migrateIds(jdbcTemplate, "users");
+        for (String index : V1_INDEXES) {
+            jdbcTemplate.execute("create index if not exists " + index);
+        }
+    }
+
+    private void migrateIds(JdbcTemplate jdbcTemplate, String table) {
+        if ("YES".equalsIgnoreCase(columnInfo(jdbcTemplate, table, "id", "is_identity"))) {
+            jdbcTemplate.execute("alter table " + table + " alter column id drop identity");
+            log.info("Dropped the identity from {}.id", table);
+        }
+        String columnDefault = columnInfo(jdbcTemplate, table, "id", "column_default");
+        if (columnDefault != null && columnDefault.startsWith("nextval(")) {
+            jdbcTemplate.execute("alter table " + table + " alter column id drop default");
+        }
+        String sequence = table + "_seq";
+        jdbcTemplate.execute("create sequence if not exists " + sequence + " start with 1 increment by " + ALLOCATION_SIZE);
+        // Hibernate's pooled optimizer hands out the block (nextval - allocationSize, nextval]; move the sequence past
+        // existing rows only when that block could collide, so running instances never see it go backwards
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject("select nextval('" + sequence + "')", Long.class);
+        if (maxId != null && next - ALLOCATION_SIZE < maxId) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (maxId + ALLOCATION_SIZE));
+            log.info("Restarted {} past the highest existing id {}", sequence, maxId);
+        }
+    }
+
+    // Lower-cased so unquoted names match on databases that fold identifiers to upper case (H2 outside PostgreSQL mode)
+    private String columnInfo(JdbcTemplate jdbcTemplate, String table, String column, String attribute) {
+        return jdbcTemplate.query(
+                "select " + attribute + " from information_schema.columns "
+                        + "where table_schema = current_schema() and lower(table_name) = ? and lower(column_name) = ?",
+                rs -> rs.next() ? rs.getString(1) : null, table, column);
+    }
+}
@@ -0,0 +1,99 @@
+package poli.bsk.incidents.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+public class CachingJwtDecoder implements JwtDecoder {
+    private final JwtDecoder delegate;
+    private final Duration maxTimeToLive;
+    private final Cache<String, Jwt> verified;
+    private final Timer successTimer;
+    private final Timer failureTimer;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxSize, Duration maxTimeToLive, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.maxTimeToLive = maxTimeToLive;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String token, Jwt jwt) -> timeToLive(jwt)))
+                .recordStats()
+                .build();
+        this.successTimer = Timer.builder("security.jwt.verification")
+                .description("Signature and claim verification of bearer tokens not found in the cache")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failureTimer = Timer.builder("security.jwt.verification")
+                .description("Signature and claim verification of bearer tokens not found in the cache")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt-tokens");
+    }
+
+    public static JWKSource<SecurityContext> jwkSource(URL jwkSetUrl, Duration timeToLive, Duration refreshAhead, Duration refreshTimeout) {
+        return JWKSourceBuilder.<SecurityContext>create(jwkSetUrl)
+                .cache(timeToLive.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .retrying(true)
+                .build();
+    }
+
+    public static NimbusJwtDecoder nimbusJwtDecoder(JWKSource<SecurityContext> jwkSource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(Set.of(JWSAlgorithm.RS256), jwkSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        Jwt cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        Jwt jwt;
+        try {
+            jwt = delegate.decode(token);
+        } catch (JwtException e) {
+            failureTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            throw e;
+        }
+        successTimer.record(Duration.ofNanos(System.nanoTime() - start));
+        if (!timeToLive(jwt).isZero()) {
+            verified.put(token, jwt);
+        }
+        return jwt;
+    }
+
+    private Duration timeToLive(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return maxTimeToLive;
+        }
+        Duration remaining = Duration.between(Instant.now(), expiresAt);
+        if (remaining.isNegative()) {
+            return Duration.ZERO;
+        }
+        return remaining.compareTo(maxTimeToLive) < 0 ? remaining : maxTimeToLive;
+    }
+}
@@ -0,0 +1,66 @@
+package poli.bsk.incidents.config;
+
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.Context;
+import org.flywaydb.core.api.migration.JavaMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+import poli.bsk.incidents.model.CodedEnum;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.util.Locale;
+
+// V2: converts status, priority and category of databases baselined from the old varchar schema to smallint codes.
+// Schemas created by V1 already use smallint, so this is a no-op for them.
+@Component
+public class IncidentCodeMigration implements JavaMigration {
+    private static final Logger log = LoggerFactory.getLogger(IncidentCodeMigration.class);
+
+    @Override
+    public MigrationVersion getVersion() { return MigrationVersion.fromVersion("2"); }
+
+    @Override
+    public String getDescription() { return "incident codes"; }
+
+    @Override
+    public Integer getChecksum() { return null; }
+
+    @Override
+    public boolean canExecuteInTransaction() { return true; }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new SingleConnectionDataSource(context.getConnection(), true));
+        migrate(jdbcTemplate, "status", IncidentStatus.class, IncidentStatus.OPEN);
+        migrate(jdbcTemplate, "priority", IncidentPriority.class, IncidentPriority.MEDIUM);
+        migrate(jdbcTemplate, "category", IncidentCategory.class, IncidentCategory.OTHER);
+    }
+
+    private <E extends Enum<E> & CodedEnum> void migrate(JdbcTemplate jdbcTemplate, String column, Class<E> type, E fallback) {
+        String dataType = jdbcTemplate.query(
+                "select data_type from information_schema.columns "
+                        + "where table_schema = current_schema() and table_name = 'incidents' and column_name = ?",
+                rs -> rs.next() ? rs.getString(1) : null, column);
+        // PostgreSQL reports "character varying", H2 "CHARACTER VARYING"
+        if (dataType == null || !(dataType.toLowerCase(Locale.ROOT).startsWith("character") || dataType.equalsIgnoreCase("text"))) {
+            return;
+        }
+        String normalized = "upper(replace(replace(trim(" + column + "), ' ', '_'), '-', '_'))";
+        StringBuilder codes = new StringBuilder("case when " + column + " is null then null");
+        short max = 0;
+        for (E value : type.getEnumConstants()) {
+            codes.append(" when ").append(normalized).append(" = '").append(value.name()).append("' then ").append(value.getCode());
+            max = (short) Math.max(max, value.getCode());
+        }
+        codes.append(" else ").append(fallback.getCode()).append(" end");
+        jdbcTemplate.execute("alter table incidents alter column " + column + " type smallint using " + codes);
+        jdbcTemplate.execute("alter table incidents add constraint ck_incidents_" + column
+                + " check (" + column + " between 1 and " + max + ")");
+        log.info("Migrated incidents.{} from {} to smallint codes", column, dataType);
+    }
+}
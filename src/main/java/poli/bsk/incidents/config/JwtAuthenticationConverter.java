@@ -1,54 +1,40 @@
 package poli.bsk.incidents.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import poli.bsk.incidents.util.AuthenticatedUser;
 import poli.bsk.incidents.util.JwtTokenUtil;
-import poli.bsk.incidents.repository.UserRepository;
-import poli.bsk.incidents.model.User;
+import poli.bsk.incidents.util.LogSampler;
+import poli.bsk.incidents.service.PrincipalCache;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 public class JwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationConverter.class);
 
     private final JwtTokenUtil jwtTokenUtil;
-    private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final LogSampler successSampler;
 
-    public JwtAuthenticationConverter(JwtTokenUtil jwtTokenUtil, UserRepository userRepository) {
+    public JwtAuthenticationConverter(JwtTokenUtil jwtTokenUtil, PrincipalCache principalCache, LogSampler successSampler) {
         this.jwtTokenUtil = jwtTokenUtil;
-        this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.successSampler = successSampler;
     }
 
     @Override
     public AbstractAuthenticationToken convert(Jwt jwt) {
         String email = jwtTokenUtil.extractEmail(jwt);
-
-        Collection<GrantedAuthority> authorities = new ArrayList<>();
-
-        Optional<User> userOptional = userRepository.findByEmail(email);
-        if (userOptional.isPresent()) {
-            User user = userOptional.get();
-            String role = user.getRole();
-
-            if (role != null && !role.isEmpty()) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
-                System.out.println("[JwtAuthenticationConverter] ✓ User " + email + " has role: " + role);
-            } else {
-                authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-                System.out.println("[JwtAuthenticationConverter] ⚠ User " + email + " has no role in DB, assigned USER");
-            }
-        } else {
-            authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
-            System.out.println("[JwtAuthenticationConverter] ⚠ User " + email + " not found in DB, assigned USER");
+        List<GrantedAuthority> authorities = principalCache.getAuthorities(email);
+        AuthenticatedUser user = jwtTokenUtil.buildIdentity(jwt, authorities);
+        if (log.isInfoEnabled() && successSampler.sample()) {
+            log.info("Authenticated {} with authorities {}", email, authorities);
         }
-
-        return new UsernamePasswordAuthenticationToken(email, null, authorities);
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
     }
 }
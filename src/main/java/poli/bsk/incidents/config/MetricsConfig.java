@@ -0,0 +1,22 @@
+package poli.bsk.incidents.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountCustomizer(QueryCountInspector queryCountInspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, queryCountInspector);
+    }
+
+    // Boot applies it to applicationTaskExecutor, which also runs Spring MVC async work
+    @Bean
+    public TaskDecorator queryCountTaskDecorator(QueryCountInspector queryCountInspector) {
+        return queryCountInspector::propagate;
+    }
+}
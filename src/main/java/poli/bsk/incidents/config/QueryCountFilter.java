@@ -0,0 +1,106 @@
+package poli.bsk.incidents.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs outside the security chain so statements issued while resolving the principal are counted too
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+    private static final String STATEMENTS_ATTRIBUTE = QueryCountFilter.class.getName() + ".statements";
+
+    private final QueryCountInspector inspector;
+    private final MeterRegistry meterRegistry;
+    private final int warnThreshold;
+
+    @Autowired
+    public QueryCountFilter(QueryCountInspector inspector, MeterRegistry meterRegistry,
+                            @Value("${app.metrics.query-count.warn-threshold:20}") int warnThreshold) {
+        this.inspector = inspector;
+        this.meterRegistry = meterRegistry;
+        this.warnThreshold = warnThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // The async dispatch that renders a deferred result adds to the count of the request that started it
+        AtomicInteger resumed = (AtomicInteger) request.getAttribute(STATEMENTS_ATTRIBUTE);
+        AtomicInteger statements = resumed != null ? resumed : inspector.start();
+        if (resumed != null) {
+            inspector.resume(resumed);
+        } else {
+            request.setAttribute(STATEMENTS_ATTRIBUTE, statements);
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inspector.stop();
+            if (resumed != null) {
+                return;
+            }
+            // NDJSON and other streamed bodies keep querying after the request thread returns
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, statements.get());
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, statements.get());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, int statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder("http.server.requests.queries")
+                .description("Hibernate statements executed per HTTP request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements);
+        if (statements > warnThreshold) {
+            log.warn("{} {} executed {} statements", request.getMethod(), uri, statements);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package poli.bsk.incidents.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<AtomicInteger> STATEMENTS = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = STATEMENTS.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    // Statements are counted on the thread that called start() and on tasks it hands off through propagate()
+    public AtomicInteger start() {
+        AtomicInteger count = new AtomicInteger();
+        STATEMENTS.set(count);
+        return count;
+    }
+
+    public void resume(AtomicInteger count) {
+        STATEMENTS.set(count);
+    }
+
+    public void stop() {
+        STATEMENTS.remove();
+    }
+
+    // Streaming responses write from the MVC async executor; the task shares the submitting request's counter
+    public Runnable propagate(Runnable task) {
+        AtomicInteger count = STATEMENTS.get();
+        if (count == null) {
+            return task;
+        }
+        return () -> {
+            AtomicInteger previous = STATEMENTS.get();
+            STATEMENTS.set(count);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    STATEMENTS.set(previous);
+                } else {
+                    STATEMENTS.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,220 @@
+package poli.bsk.incidents.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import poli.bsk.incidents.util.Authorities;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Admission control inside the security chain, after authentication and before authorization: a token bucket
+// per principal and endpoint class, then a global cap on requests in flight. Rejected requests get 429 with
+// Retry-After and never reach a controller or the database.
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String ANONYMOUS = "anonymous";
+    public static final String DEFAULT_ROLE = "user";
+
+    public enum EndpointClass { READ, WRITE, ADMIN }
+
+    private final Map<String, RoleLimits> roles;
+    private final List<RequestMatcher> adminPaths;
+    private final int maxConcurrentRequests;
+    private final Semaphore permits;
+    private final Cache<String, TokenBucket> buckets;
+    private final LongSupplier nanoClock;
+    private final MeterRegistry meterRegistry;
+
+    // Roles are tried in configuration order, so list the most privileged one first
+    public RateLimitFilter(Map<String, RoleLimits> roles, List<String> adminPaths, int maxConcurrentRequests,
+                           long maxBuckets, Duration idleTimeout, MeterRegistry meterRegistry) {
+        this(roles, adminPaths, maxConcurrentRequests, maxBuckets, idleTimeout, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(Map<String, RoleLimits> roles, List<String> adminPaths, int maxConcurrentRequests,
+                    long maxBuckets, Duration idleTimeout, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.roles = roles;
+        this.adminPaths = adminPaths.stream()
+                .<RequestMatcher>map(PathPatternRequestMatcher.withDefaults()::matcher)
+                .toList();
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rate-limit-buckets");
+        Gauge.builder("http.server.requests.admitted", permits, p -> maxConcurrentRequests - p.availablePermits())
+                .description("Requests currently holding one of the global concurrency permits")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.admitted.max", () -> maxConcurrentRequests)
+                .description("Global limit on requests in flight")
+                .register(meterRegistry);
+    }
+
+    // Probes must keep answering under load, otherwise an overloaded instance gets restarted
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator/health");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpoint = classify(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        boolean anonymous = authentication == null || authentication instanceof AnonymousAuthenticationToken;
+        String role = anonymous ? ANONYMOUS : role(authentication);
+        RoleLimits limits = roles.get(role);
+        Limit limit = limits != null ? limits.get(endpoint) : null;
+        if (limit != null) {
+            // Anonymous callers only reach the login and health endpoints; they share a bucket per address
+            String caller = anonymous ? request.getRemoteAddr() : authentication.getName();
+            TokenBucket bucket = buckets.get(caller + "|" + role + "|" + endpoint, key -> new TokenBucket(limit, nanoClock.getAsLong()));
+            long waitNanos = bucket.tryAcquire(nanoClock.getAsLong());
+            if (waitNanos > 0) {
+                reject(response, "rate-limit", role, endpoint, waitNanos);
+                return;
+            }
+        }
+        // Released as soon as the request thread leaves the chain; SSE and streamed bodies do not hold a permit
+        if (!permits.tryAcquire()) {
+            reject(response, "overload", role, endpoint, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private EndpointClass classify(HttpServletRequest request) {
+        for (RequestMatcher matcher : adminPaths) {
+            if (matcher.matches(request)) {
+                return EndpointClass.ADMIN;
+            }
+        }
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)) {
+            return EndpointClass.READ;
+        }
+        return EndpointClass.WRITE;
+    }
+
+    private String role(Authentication authentication) {
+        for (String role : roles.keySet()) {
+            String authority = Authorities.roleName(role);
+            for (GrantedAuthority granted : authentication.getAuthorities()) {
+                if (authority.equals(granted.getAuthority())) {
+                    return role;
+                }
+            }
+        }
+        return DEFAULT_ROLE;
+    }
+
+    private void reject(HttpServletResponse response, String reason, String role, EndpointClass endpoint, long waitNanos) {
+        Counter.builder("http.server.requests.rejected")
+                .description("Requests turned away by admission control")
+                .tag("reason", reason)
+                .tag("role", role)
+                .tag("endpoint", endpoint.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L)));
+    }
+
+    // Generic cell rate algorithm: the whole bucket is one "theoretical arrival time", so taking a token is a single CAS.
+    // The bucket starts full; a token is added every period / capacity.
+    static final class TokenBucket {
+        private final long interval;
+        private final long burst;
+        private final AtomicLong arrival;
+
+        TokenBucket(Limit limit, long now) {
+            this.interval = Math.max(1, limit.getPeriod().toNanos() / limit.getCapacity());
+            this.burst = interval * limit.getCapacity();
+            this.arrival = new AtomicLong(now);
+        }
+
+        // Returns 0 if a token was taken, otherwise how long until the next one is available
+        long tryAcquire(long now) {
+            while (true) {
+                long current = arrival.get();
+                long next = Math.max(current, now) + interval;
+                long wait = next - now - burst;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    public static class Limit {
+        private final long capacity;
+        private final Duration period;
+
+        public Limit(long capacity, Duration period) {
+            if (capacity <= 0 || period == null || period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("A rate limit needs a positive capacity and period");
+            }
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+        public long getCapacity() { return capacity; }
+        public Duration getPeriod() { return period; }
+    }
+
+    // A missing class means requests of that class are not limited for the role
+    public static class RoleLimits {
+        private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+
+        public RoleLimits(Limit read, Limit write, Limit admin) {
+            put(EndpointClass.READ, read);
+            put(EndpointClass.WRITE, write);
+            put(EndpointClass.ADMIN, admin);
+        }
+
+        public Limit get(EndpointClass endpoint) { return limits.get(endpoint); }
+
+        private void put(EndpointClass endpoint, Limit limit) {
+            if (limit != null) {
+                limits.put(endpoint, limit);
+            }
+        }
+    }
+}
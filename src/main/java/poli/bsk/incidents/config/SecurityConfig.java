@@ -1,24 +1,40 @@
 package poli.bsk.incidents.config;
 
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import poli.bsk.incidents.controller.IncidentController;
 import poli.bsk.incidents.util.JwtTokenUtil;
-import poli.bsk.incidents.repository.UserRepository;
+import poli.bsk.incidents.util.LogSampler;
+import poli.bsk.incidents.service.PrincipalCache;
 
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -34,13 +50,85 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:https://login.microsoftonline.com/common/discovery/v2.0/keys}")
     private String jwkSetUri;
 
+    @Value("${app.security.jwk.cache-ttl:15m}")
+    private Duration jwkCacheTtl;
+
+    @Value("${app.security.jwk.refresh-ahead:1m}")
+    private Duration jwkRefreshAhead;
+
+    @Value("${app.security.jwk.refresh-timeout:15s}")
+    private Duration jwkRefreshTimeout;
+
+    @Value("${app.security.jwt-cache.max-size:10000}")
+    private long jwtCacheMaxSize;
+
+    @Value("${app.security.jwt-cache.max-ttl:1h}")
+    private Duration jwtCacheMaxTtl;
+
+    @Value("${app.logging.auth-success-sample-rate:100}")
+    private long authSuccessSampleRate;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${app.rate-limit.max-concurrent-requests:200}")
+    private int maxConcurrentRequests;
+
+    @Value("${app.rate-limit.admin-paths:/actuator/**}")
+    private List<String> adminPaths;
+
+    @Value("${app.rate-limit.buckets.max-size:100000}")
+    private long rateLimitMaxBuckets;
+
+    @Value("${app.rate-limit.buckets.idle-timeout:10m}")
+    private Duration rateLimitIdleTimeout;
+
+    @Value("${app.metrics.scrape.username:prometheus}")
+    private String scrapeUsername;
+
+    @Value("${app.metrics.scrape.password:}")
+    private String scrapePassword;
+
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withJwkSetUri(jwkSetUri).build();
+    public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+        return CachingJwtDecoder.jwkSource(URI.create(jwkSetUri).toURL(), jwkCacheTtl, jwkRefreshAhead, jwkRefreshTimeout);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtTokenUtil jwtTokenUtil, UserRepository userRepository) throws Exception {
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, MeterRegistry meterRegistry) {
+        return new CachingJwtDecoder(CachingJwtDecoder.nimbusJwtDecoder(jwkSource), jwtCacheMaxSize, jwtCacheMaxTtl, meterRegistry);
+    }
+
+    // Prometheus cannot obtain a JWT, so the scrape endpoint takes basic auth from a single configured user.
+    // Without a password there is no user and every scrape is rejected.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain prometheusFilterChain(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
+        InMemoryUserDetailsManager scrapeUsers = new InMemoryUserDetailsManager();
+        if (!scrapePassword.isBlank()) {
+            scrapeUsers.createUser(User.withUsername(scrapeUsername)
+                    .password(passwordEncoder.encode(scrapePassword))
+                    .roles("METRICS")
+                    .build());
+        }
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth.anyRequest().hasRole("METRICS"))
+            .userDetailsService(scrapeUsers)
+            .httpBasic(basic -> {});
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity http, JwtDecoder jwtDecoder, JwtTokenUtil jwtTokenUtil, PrincipalCache principalCache,
+                                           Environment environment, MeterRegistry meterRegistry) throws Exception {
+        if (rateLimitEnabled) {
+            // Not a bean: Boot would also register it as a plain servlet filter, outside the security context
+            http.addFilterBefore(rateLimitFilter(environment, meterRegistry), AuthorizationFilter.class);
+        }
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -48,27 +136,36 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/health/**").permitAll()
-                .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/login", "/logout").permitAll()
                 .requestMatchers("/**").authenticated()
                 .anyRequest().authenticated()
             )
             .oauth2ResourceServer(oauth2 -> oauth2
                 .jwt(jwt -> jwt
-                    .decoder(jwtDecoder())
-                    .jwtAuthenticationConverter(new JwtAuthenticationConverter(jwtTokenUtil, userRepository))
+                    .decoder(jwtDecoder)
+                    .jwtAuthenticationConverter(new JwtAuthenticationConverter(jwtTokenUtil, principalCache, new LogSampler(authSuccessSampleRate)))
                 )
             )
             .httpBasic(basic -> {});
         return http.build();
     }
 
+    private RateLimitFilter rateLimitFilter(Environment environment, MeterRegistry meterRegistry) {
+        Map<String, RateLimitFilter.RoleLimits> roles = Binder.get(environment)
+                .bind("app.rate-limit.roles", Bindable.mapOf(String.class, RateLimitFilter.RoleLimits.class))
+                .orElse(Map.of());
+        return new RateLimitFilter(roles, adminPaths, maxConcurrentRequests, rateLimitMaxBuckets, rateLimitIdleTimeout, meterRegistry);
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("https://bskprojekt.kacperklimas.com", "http://localhost:3000", "http://localhost:3000/"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(IncidentController.NEXT_CURSOR_HEADER, "ETag", CorrelationIdFilter.HEADER, "Retry-After"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
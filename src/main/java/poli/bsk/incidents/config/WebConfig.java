@@ -0,0 +1,31 @@
+package poli.bsk.incidents.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    // Same lenient parsing for path variables and query parameters as for JSON bodies
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, IncidentStatus.class, IncidentStatus::from);
+        registry.addConverter(String.class, IncidentPriority.class, IncidentPriority::from);
+        registry.addConverter(String.class, IncidentCategory.class, IncidentCategory::from);
+    }
+
+    // Binary encodings for machine clients (Accept: application/cbor or application/x-jackson-smile);
+    // JSON stays the default for browsers and anything that does not ask
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter())
+                .withSmileConverter(new JacksonSmileHttpMessageConverter());
+    }
+}
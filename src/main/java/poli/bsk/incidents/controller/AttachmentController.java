@@ -0,0 +1,152 @@
+package poli.bsk.incidents.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import poli.bsk.incidents.service.AttachmentService;
+import poli.bsk.incidents.service.AttachmentTooLargeException;
+import poli.bsk.incidents.dto.AttachmentDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/incidents/{id}/attachments")
+public class AttachmentController {
+    // Tomcat's sendfile hand-off: the connector writes the file straight from the page cache after the servlet returns
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Content is addressed by hash, so a given attachment URL never changes its bytes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    private final AttachmentService attachmentService;
+
+    @Autowired
+    public AttachmentController(AttachmentService attachmentService) {
+        this.attachmentService = attachmentService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<AttachmentDTO>> getAttachments(@PathVariable Long id) {
+        return ResponseEntity.ok(attachmentService.getAttachments(id));
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<AttachmentDTO> uploadAttachment(@PathVariable Long id,
+                                                          @RequestParam("file") MultipartFile file,
+                                                          Principal principal) throws IOException {
+        String fileName = StringUtils.getFilename(StringUtils.cleanPath(String.valueOf(file.getOriginalFilename())));
+        String contentType = file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        try (InputStream content = file.getInputStream()) {
+            return attachmentService.upload(id, StringUtils.hasText(fileName) ? fileName : "attachment", contentType,
+                            content, principal.getName())
+                    .map(attachment -> ResponseEntity.status(HttpStatus.CREATED).body(attachment))
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (AttachmentTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+    }
+
+    @GetMapping("/{attachmentId}/content")
+    @PreAuthorize("isAuthenticated()")
+    public void downloadAttachment(@PathVariable Long id,
+                                   @PathVariable Long attachmentId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        Optional<AttachmentDTO> found = attachmentService.getAttachment(id, attachmentId);
+        if (found.isEmpty() || !attachmentService.hasContent(found.get())) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        AttachmentDTO attachment = found.get();
+        if (new ServletWebRequest(request, response).checkNotModified(attachment.getSha256())) {
+            return;
+        }
+
+        long length = attachment.getSize();
+        long start = 0;
+        long end = length - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8).build().toString());
+        response.setContentType(attachment.getContentType());
+
+        HttpRange range = range(request, attachment.getSha256());
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length);
+            if (start >= length || start > end) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count == 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, attachmentService.contentPath(attachment).toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        attachmentService.transfer(attachment, start, count, Channels.newChannel(response.getOutputStream()));
+    }
+
+    @DeleteMapping("/{attachmentId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteAttachment(@PathVariable Long id, @PathVariable Long attachmentId) {
+        if (!attachmentService.deleteAttachment(id, attachmentId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // A single range is served as 206; malformed, multi-range (multipart/byteranges) or a stale If-Range
+    // fall back to the full content, as RFC 9110 allows
+    private static HttpRange range(HttpServletRequest request, String sha256) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals("\"" + sha256 + "\"")) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import poli.bsk.incidents.util.AuthenticatedUser;
 import poli.bsk.incidents.util.JwtTokenUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 
@@ -33,6 +34,15 @@ public class AuthController {
             return ResponseEntity.status(401).build();
         }
 
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("email", user.getEmail());
+            response.put("name", user.getDisplayName());
+            response.put("roles", user.getRoles());
+            response.put("sub", user.getSubject());
+            return ResponseEntity.ok(response);
+        }
+
         if (authentication.getPrincipal() instanceof Jwt) {
             Jwt jwt = (Jwt) authentication.getPrincipal();
             Map<String, Object> response = new HashMap<>();
@@ -59,7 +69,12 @@ public class AuthController {
 
         Map<String, Object> response = new HashMap<>();
 
-        if (authentication.getPrincipal() instanceof Jwt) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            response.put("email", user.getEmail());
+            response.put("name", user.getDisplayName());
+            response.put("roles", user.getRoles());
+            response.put("authenticated", true);
+        } else if (authentication.getPrincipal() instanceof Jwt) {
             Jwt jwt = (Jwt) authentication.getPrincipal();
             response.put("email", jwtTokenUtil.extractEmail(jwt));
             response.put("name", jwtTokenUtil.extractName(jwt));
@@ -0,0 +1,84 @@
+package poli.bsk.incidents.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import poli.bsk.incidents.service.IncidentInboxService;
+import poli.bsk.incidents.service.InboxView;
+import poli.bsk.incidents.dto.InboxItemDTO;
+import poli.bsk.incidents.dto.InboxPage;
+import poli.bsk.incidents.dto.InboxVerificationDTO;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/inbox")
+public class InboxController {
+    private final IncidentInboxService incidentInboxService;
+
+    @Autowired
+    public InboxController(IncidentInboxService incidentInboxService) {
+        this.incidentInboxService = incidentInboxService;
+    }
+
+    @GetMapping("/assigned")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<InboxItemDTO>> getAssigned(Principal principal,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(required = false) Integer size) {
+        try {
+            return page(incidentInboxService.getInbox(principal.getName(), InboxView.ASSIGNED, after, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/reported")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<InboxItemDTO>> getReported(Principal principal,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(required = false) Integer size) {
+        try {
+            return page(incidentInboxService.getInbox(principal.getName(), InboxView.REPORTED, after, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/unread")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Map<String, Integer>> countUnread(Principal principal) {
+        return ResponseEntity.ok(Map.of("unread", incidentInboxService.countUnread(principal.getName())));
+    }
+
+    @PostMapping("/{id}/read")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<Void> markRead(Principal principal, @PathVariable Long id) {
+        incidentInboxService.markRead(principal.getName(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InboxVerificationDTO> verifyInbox() {
+        return ResponseEntity.ok(incidentInboxService.verify());
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InboxVerificationDTO> rebuildInbox() {
+        incidentInboxService.rebuild();
+        return ResponseEntity.ok(incidentInboxService.verify());
+    }
+
+    private ResponseEntity<List<InboxItemDTO>> page(InboxPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(IncidentController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
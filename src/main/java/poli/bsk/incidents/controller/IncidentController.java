@@ -1,83 +1,297 @@
 package poli.bsk.incidents.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import poli.bsk.incidents.search.IncidentSearchService;
+import poli.bsk.incidents.service.IncidentArchiveService;
+import poli.bsk.incidents.service.IncidentChangeStream;
+import poli.bsk.incidents.service.IncidentFilter;
 import poli.bsk.incidents.service.IncidentService;
+import poli.bsk.incidents.service.InvalidStatusTransitionException;
+import poli.bsk.incidents.dto.ArchiveRunDTO;
+import poli.bsk.incidents.dto.BatchResultDTO;
+import poli.bsk.incidents.dto.CommentDTO;
+import poli.bsk.incidents.dto.CursorPage;
+import poli.bsk.incidents.dto.IncidentChangeDTO;
 import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSearchCriteria;
+import poli.bsk.incidents.dto.IncidentSearchHitDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.EntityVersion;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/incidents")
 public class IncidentController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    // Stored by the browser only and revalidated on every use; replaces Spring Security's no-store default
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final IncidentService incidentService;
+    private final IncidentArchiveService incidentArchiveService;
+    private final IncidentSearchService incidentSearchService;
+    private final IncidentChangeStream incidentChangeStream;
+    private final ObjectMapper objectMapper;
+    private final int maxBatchSize;
 
     @Autowired
-    public IncidentController(IncidentService incidentService) {
+    public IncidentController(IncidentService incidentService,
+                              IncidentArchiveService incidentArchiveService,
+                              IncidentSearchService incidentSearchService,
+                              IncidentChangeStream incidentChangeStream,
+                              ObjectMapper objectMapper,
+                              @Value("${app.incidents.batch.max-size:1000}") int maxBatchSize) {
         this.incidentService = incidentService;
+        this.incidentArchiveService = incidentArchiveService;
+        this.incidentSearchService = incidentSearchService;
+        this.incidentChangeStream = incidentChangeStream;
+        this.objectMapper = objectMapper;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<IncidentDTO>> getAllIncidents() {
-        List<IncidentDTO> incidents = incidentService.getAllIncidents();
-        return ResponseEntity.ok(incidents);
+    public ResponseEntity<? extends List<?>> getAllIncidents(@RequestParam(required = false) Long after,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(defaultValue = "summary") String view,
+                                                             @RequestParam(defaultValue = "false") boolean archived,
+                                                             @RequestParam(required = false) List<String> fields,
+                                                             WebRequest request) {
+        return list(IncidentFilter.ALL, null, after, size, view, archived, fields, request);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamAllIncidents() {
+        return ndjson(IncidentFilter.ALL, null);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PagedModel<IncidentSummaryDTO>> searchIncidents(IncidentSearchCriteria criteria,
+                                                                          @PageableDefault(size = 50, sort = "reportedAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        try {
+            return ResponseEntity.ok(new PagedModel<>(incidentService.searchIncidents(criteria, pageable)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search/text")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<PagedModel<IncidentSearchHitDTO>> searchIncidentText(@RequestParam String q,
+                                                                              @PageableDefault(size = 20) Pageable pageable) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(new PagedModel<>(incidentSearchService.search(q, pageable)));
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public Flux<ServerSentEvent<IncidentChangeDTO>> streamIncidentChanges(@RequestParam(required = false) String assignedTo,
+                                                                         @RequestParam(required = false) IncidentStatus status) {
+        return incidentChangeStream.subscribe(assignedTo, status);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<IncidentDTO> getIncidentById(@PathVariable Long id) {
-        return incidentService.getIncidentById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> getIncidentById(@PathVariable Long id,
+                                             @RequestParam(defaultValue = "false") boolean archived,
+                                             @RequestParam(required = false) List<String> fields,
+                                             WebRequest request) {
+        // Validate against the version row before loading comments and attachments
+        Optional<EntityVersion> version = archived ? incidentArchiveService.getIncidentVersion(id) : incidentService.getIncidentVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String tag = incidentTag(version.get(), fields);
+        varyByAccept(request);
+        if (request.checkNotModified(tag, lastModified(version.get()))) {
+            return null;
+        }
+        if (fields != null) {
+            try {
+                Optional<Map<String, Object>> incident = archived
+                        ? incidentArchiveService.getIncidentFieldsById(id, fields)
+                        : incidentService.getIncidentFieldsById(id, fields);
+                return incident
+                        .map(selected -> ResponseEntity.ok().cacheControl(REVALIDATE).lastModified(lastModified(version.get()))
+                                .eTag(tag).body(selected))
+                        .orElse(ResponseEntity.notFound().build());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return (archived ? incidentArchiveService.getIncidentById(id) : incidentService.getIncidentById(id))
+                .map(incident -> ResponseEntity.ok().cacheControl(REVALIDATE).lastModified(lastModified(version.get()))
+                        .eTag(tag).body(incident))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<IncidentDTO>> getIncidentsByStatus(@PathVariable String status) {
-        List<IncidentDTO> incidents = incidentService.getIncidentsByStatus(status);
-        return ResponseEntity.ok(incidents);
+    public ResponseEntity<? extends List<?>> getIncidentsByStatus(@PathVariable IncidentStatus status,
+                                                                  @RequestParam(required = false) Long after,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(defaultValue = "summary") String view,
+                                                                  @RequestParam(defaultValue = "false") boolean archived,
+                                                                  @RequestParam(required = false) List<String> fields,
+                                                                  WebRequest request) {
+        return list(IncidentFilter.STATUS, status.name(), after, size, view, archived, fields, request);
+    }
+
+    @GetMapping(value = "/status/{status}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamIncidentsByStatus(@PathVariable IncidentStatus status) {
+        return ndjson(IncidentFilter.STATUS, status.name());
     }
 
     @GetMapping("/priority/{priority}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<IncidentDTO>> getIncidentsByPriority(@PathVariable String priority) {
-        List<IncidentDTO> incidents = incidentService.getIncidentsByPriority(priority);
-        return ResponseEntity.ok(incidents);
+    public ResponseEntity<? extends List<?>> getIncidentsByPriority(@PathVariable IncidentPriority priority,
+                                                                    @RequestParam(required = false) Long after,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "summary") String view,
+                                                                    @RequestParam(defaultValue = "false") boolean archived,
+                                                                    @RequestParam(required = false) List<String> fields,
+                                                                    WebRequest request) {
+        return list(IncidentFilter.PRIORITY, priority.name(), after, size, view, archived, fields, request);
+    }
+
+    @GetMapping(value = "/priority/{priority}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamIncidentsByPriority(@PathVariable IncidentPriority priority) {
+        return ndjson(IncidentFilter.PRIORITY, priority.name());
     }
 
     @GetMapping("/reporter/{reportedBy}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<IncidentDTO>> getIncidentsByReporter(@PathVariable String reportedBy) {
-        List<IncidentDTO> incidents = incidentService.getIncidentsByReportedBy(reportedBy);
-        return ResponseEntity.ok(incidents);
+    public ResponseEntity<? extends List<?>> getIncidentsByReporter(@PathVariable String reportedBy,
+                                                                    @RequestParam(required = false) Long after,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "summary") String view,
+                                                                    @RequestParam(defaultValue = "false") boolean archived,
+                                                                    @RequestParam(required = false) List<String> fields,
+                                                                    WebRequest request) {
+        return list(IncidentFilter.REPORTED_BY, reportedBy, after, size, view, archived, fields, request);
+    }
+
+    @GetMapping(value = "/reporter/{reportedBy}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamIncidentsByReporter(@PathVariable String reportedBy) {
+        return ndjson(IncidentFilter.REPORTED_BY, reportedBy);
     }
 
     @GetMapping("/assigned/{assignedTo}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<IncidentDTO>> getIncidentsByAssignee(@PathVariable String assignedTo) {
-        List<IncidentDTO> incidents = incidentService.getIncidentsByAssignedTo(assignedTo);
-        return ResponseEntity.ok(incidents);
+    public ResponseEntity<? extends List<?>> getIncidentsByAssignee(@PathVariable String assignedTo,
+                                                                    @RequestParam(required = false) Long after,
+                                                                    @RequestParam(required = false) Integer size,
+                                                                    @RequestParam(defaultValue = "summary") String view,
+                                                                    @RequestParam(defaultValue = "false") boolean archived,
+                                                                    @RequestParam(required = false) List<String> fields,
+                                                                    WebRequest request) {
+        return list(IncidentFilter.ASSIGNED_TO, assignedTo, after, size, view, archived, fields, request);
+    }
+
+    @GetMapping(value = "/assigned/{assignedTo}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StreamingResponseBody> streamIncidentsByAssignee(@PathVariable String assignedTo) {
+        return ndjson(IncidentFilter.ASSIGNED_TO, assignedTo);
     }
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<IncidentDTO> createIncident(@RequestBody IncidentDTO incidentDTO) {
         IncidentDTO created = incidentService.createIncident(incidentDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        return versioned(ResponseEntity.status(HttpStatus.CREATED), created);
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BatchResultDTO> createIncidents(@RequestBody List<IncidentDTO> incidentDTOs) {
+        if (incidentDTOs.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(incidentService.createIncidents(incidentDTOs));
+    }
+
+    @PatchMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<BatchResultDTO> updateIncidents(@RequestBody List<IncidentDTO> incidentDTOs) {
+        if (incidentDTOs.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(incidentService.updateIncidents(incidentDTOs));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<IncidentDTO> updateIncident(@PathVariable Long id, @RequestBody IncidentDTO incidentDTO) {
-        IncidentDTO updated = incidentService.updateIncident(id, incidentDTO);
-        if (updated != null) {
-            return ResponseEntity.ok(updated);
+    public ResponseEntity<IncidentDTO> updateIncident(@PathVariable Long id,
+                                                      @RequestBody IncidentDTO incidentDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return versionedOrNotFound(incidentService.updateIncident(id, incidentDTO, expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PatchMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<IncidentDTO> patchIncident(@PathVariable Long id,
+                                                     @RequestBody IncidentDTO incidentDTO,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return versionedOrNotFound(incidentService.patchIncident(id, incidentDTO, expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (InvalidStatusTransitionException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/{id}/comments")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<IncidentDTO> addComment(@PathVariable Long id,
+                                                  @RequestBody CommentDTO commentDTO,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return versionedOrNotFound(incidentService.addComment(id, commentDTO.getText(), expectedVersion(ifMatch)));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        return ResponseEntity.notFound().build();
     }
 
     @DeleteMapping("/{id}")
@@ -86,4 +300,133 @@ public class IncidentController {
         incidentService.deleteIncident(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ArchiveRunDTO> archiveResolvedIncidents() {
+        int archived = incidentArchiveService.archiveResolved();
+        if (archived < 0) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(new ArchiveRunDTO(archived));
+    }
+
+    private ResponseEntity<IncidentDTO> versionedOrNotFound(IncidentDTO incident) {
+        if (incident != null) {
+            return versioned(ResponseEntity.ok(), incident);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<IncidentDTO> versioned(ResponseEntity.BodyBuilder response, IncidentDTO incident) {
+        if (incident.getVersion() != null) {
+            response.eTag(incidentTag(incident.getVersion(), null));
+        }
+        return response.body(incident);
+    }
+
+    private static long lastModified(EntityVersion version) {
+        return version.getUpdatedAt() != null ? version.getUpdatedAt().toEpochMilli() : -1;
+    }
+
+    // GET validators are weak: Tomcat does not compress responses that carry a strong ETag, and the JSON, CBOR and
+    // Smile encodings of one version are equivalent rather than byte-identical. The projection is part of the tag;
+    // the encoding is covered by Vary: Accept.
+    private static String incidentTag(EntityVersion version, List<String> fields) {
+        return incidentTag(version.getVersion(), fields);
+    }
+
+    private static String incidentTag(Long version, List<String> fields) {
+        return "W/\"" + version + (fields != null ? "-" + fieldsTag(fields) : "") + "\"";
+    }
+
+    private static String collectionTag(long version, String view, List<String> fields) {
+        String projection = fields != null ? fieldsTag(fields) : "full".equalsIgnoreCase(view) ? "full" : "summary";
+        return "W/\"c" + version + "-" + projection + "\"";
+    }
+
+    // Hashed, so names that would not be valid inside a quoted tag never reach the header
+    private static String fieldsTag(List<String> fields) {
+        return "f" + Integer.toHexString(String.join(",", fields).hashCode());
+    }
+
+    // Added before the conditional check so 304 responses carry it as well
+    private static void varyByAccept(WebRequest request) {
+        HttpServletResponse response = ((NativeWebRequest) request).getNativeResponse(HttpServletResponse.class);
+        if (response != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+    }
+
+    // Every incident tag is weak, so If-Match compares only the version it starts with: any projection of the
+    // current version matches. Anything else, such as a collection tag, can never match.
+    private Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return -1L;
+        }
+        tag = tag.substring(1, tag.length() - 1);
+        int projection = tag.indexOf('-');
+        try {
+            return Long.valueOf(projection >= 0 ? tag.substring(0, projection) : tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private ResponseEntity<? extends List<?>> list(IncidentFilter filter, String value, Long after, Integer size,
+                                                   String view, boolean archived, List<String> fields, WebRequest request) {
+        // One version for every list URL: any incident change invalidates all cached pages
+        String tag = collectionTag(incidentService.getCollectionVersion(), view, fields);
+        varyByAccept(request);
+        if (request.checkNotModified(tag)) {
+            return null;
+        }
+        // fields=id,title,status selects just those columns; it takes precedence over view
+        if (fields != null) {
+            try {
+                return page(tag, archived
+                        ? incidentArchiveService.getIncidentFields(filter, value, after, size, fields)
+                        : incidentService.getIncidentFields(filter, value, after, size, fields));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        if ("full".equalsIgnoreCase(view)) {
+            return page(tag, archived
+                    ? incidentArchiveService.getIncidentDetails(filter, value, after, size)
+                    : incidentService.getIncidentDetails(filter, value, after, size));
+        }
+        return page(tag, archived
+                ? incidentArchiveService.getIncidentSummaries(filter, value, after, size)
+                : incidentService.getIncidentSummaries(filter, value, after, size));
+    }
+
+    private <T> ResponseEntity<List<T>> page(String tag, CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(REVALIDATE).eTag(tag);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
+        }
+        return response.body(page.getItems());
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(IncidentFilter filter, String value) {
+        StreamingResponseBody body = out -> incidentService.streamIncidentSummaries(filter, value, dto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(dto));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
@@ -0,0 +1,42 @@
+package poli.bsk.incidents.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import poli.bsk.incidents.service.IncidentStatsService;
+import poli.bsk.incidents.dto.IncidentStatsDTO;
+import poli.bsk.incidents.dto.IncidentStatsVerificationDTO;
+
+@RestController
+@RequestMapping("/api/incidents/stats")
+public class IncidentStatsController {
+    private final IncidentStatsService incidentStatsService;
+
+    @Autowired
+    public IncidentStatsController(IncidentStatsService incidentStatsService) {
+        this.incidentStatsService = incidentStatsService;
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<IncidentStatsDTO> getStats(@RequestParam(defaultValue = "counters") String source) {
+        if ("database".equalsIgnoreCase(source)) {
+            return ResponseEntity.ok(incidentStatsService.getStatsFromDatabase());
+        }
+        return ResponseEntity.ok(incidentStatsService.getStats());
+    }
+
+    @GetMapping("/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IncidentStatsVerificationDTO> verifyStats() {
+        return ResponseEntity.ok(incidentStatsService.verify());
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<IncidentStatsDTO> rebuildStats() {
+        incidentStatsService.rebuild();
+        return ResponseEntity.ok(incidentStatsService.getStats());
+    }
+}
@@ -0,0 +1,73 @@
+package poli.bsk.incidents.controller;
+
+import org.springframework.web.bind.annotation.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.prepost.PreAuthorize;
+import poli.bsk.incidents.service.IncidentFilter;
+import poli.bsk.incidents.service.ReactiveIncidentService;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactive/incidents")
+public class ReactiveIncidentController {
+    private final ReactiveIncidentService incidentService;
+
+    @Autowired
+    public ReactiveIncidentController(ReactiveIncidentService incidentService) {
+        this.incidentService = incidentService;
+    }
+
+    @GetMapping
+    @PreAuthorize("isAuthenticated()")
+    public Flux<IncidentDTO> getAllIncidents(@RequestParam(required = false) Long after,
+                                             @RequestParam(required = false) Integer size) {
+        return incidentService.getIncidents(IncidentFilter.ALL, null, after, size);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("isAuthenticated()")
+    public Mono<ResponseEntity<IncidentDTO>> getIncidentById(@PathVariable Long id) {
+        return incidentService.getIncidentById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/status/{status}")
+    @PreAuthorize("isAuthenticated()")
+    public Flux<IncidentDTO> getIncidentsByStatus(@PathVariable IncidentStatus status,
+                                                  @RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer size) {
+        return incidentService.getIncidents(IncidentFilter.STATUS, status.name(), after, size);
+    }
+
+    @GetMapping("/priority/{priority}")
+    @PreAuthorize("isAuthenticated()")
+    public Flux<IncidentDTO> getIncidentsByPriority(@PathVariable IncidentPriority priority,
+                                                    @RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer size) {
+        return incidentService.getIncidents(IncidentFilter.PRIORITY, priority.name(), after, size);
+    }
+
+    @GetMapping("/reporter/{reportedBy}")
+    @PreAuthorize("isAuthenticated()")
+    public Flux<IncidentDTO> getIncidentsByReporter(@PathVariable String reportedBy,
+                                                    @RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer size) {
+        return incidentService.getIncidents(IncidentFilter.REPORTED_BY, reportedBy, after, size);
+    }
+
+    @GetMapping("/assigned/{assignedTo}")
+    @PreAuthorize("isAuthenticated()")
+    public Flux<IncidentDTO> getIncidentsByAssignee(@PathVariable String assignedTo,
+                                                    @RequestParam(required = false) Long after,
+                                                    @RequestParam(required = false) Integer size) {
+        return incidentService.getIncidents(IncidentFilter.ASSIGNED_TO, assignedTo, after, size);
+    }
+}
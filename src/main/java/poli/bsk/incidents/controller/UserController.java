@@ -2,13 +2,17 @@ package poli.bsk.incidents.controller;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.context.request.WebRequest;
+import poli.bsk.incidents.repository.EntityVersion;
 import poli.bsk.incidents.service.UserService;
 import poli.bsk.incidents.dto.UserDTO;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/users")
@@ -29,9 +33,21 @@ public class UserController {
 
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDTO> getUserById(@PathVariable Long id, WebRequest request) {
+        Optional<EntityVersion> version = userService.getUserVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        long lastModified = version.get().getUpdatedAt() != null ? version.get().getUpdatedAt().toEpochMilli() : -1;
+        if (request.checkNotModified(version.get().getVersion().toString(), lastModified)) {
+            return null;
+        }
         return userService.getUserById(id)
-                .map(ResponseEntity::ok)
+                .map(user -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .eTag(version.get().getVersion().toString())
+                        .lastModified(lastModified)
+                        .body(user))
                 .orElse(ResponseEntity.notFound().build());
     }
 
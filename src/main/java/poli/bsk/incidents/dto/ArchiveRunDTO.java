@@ -0,0 +1,11 @@
+package poli.bsk.incidents.dto;
+
+public class ArchiveRunDTO {
+    private final int archived;
+
+    public ArchiveRunDTO(int archived) {
+        this.archived = archived;
+    }
+
+    public int getArchived() { return archived; }
+}
@@ -0,0 +1,20 @@
+package poli.bsk.incidents.dto;
+
+public class BatchItemResultDTO {
+    private final int index;
+    private final Long id;
+    private final String status;
+    private final String error;
+
+    public BatchItemResultDTO(int index, Long id, String status, String error) {
+        this.index = index;
+        this.id = id;
+        this.status = status;
+        this.error = error;
+    }
+
+    public int getIndex() { return index; }
+    public Long getId() { return id; }
+    public String getStatus() { return status; }
+    public String getError() { return error; }
+}
@@ -0,0 +1,19 @@
+package poli.bsk.incidents.dto;
+
+import java.util.List;
+
+public class BatchResultDTO {
+    private final int succeeded;
+    private final int failed;
+    private final List<BatchItemResultDTO> items;
+
+    public BatchResultDTO(List<BatchItemResultDTO> items) {
+        this.items = items;
+        this.failed = (int) items.stream().filter(item -> item.getError() != null).count();
+        this.succeeded = items.size() - failed;
+    }
+
+    public int getSucceeded() { return succeeded; }
+    public int getFailed() { return failed; }
+    public List<BatchItemResultDTO> getItems() { return items; }
+}
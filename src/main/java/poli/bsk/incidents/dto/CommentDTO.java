@@ -0,0 +1,8 @@
+package poli.bsk.incidents.dto;
+
+public class CommentDTO {
+    private String text;
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+}
@@ -0,0 +1,37 @@
+package poli.bsk.incidents.dto;
+
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.time.Instant;
+
+public class InboxItemDTO {
+    private Long id;
+    private String title;
+    private IncidentStatus status;
+    private IncidentPriority priority;
+    private String reportedBy;
+    private String assignedTo;
+    private Instant reportedAt;
+    private boolean unread;
+    private Instant changedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public IncidentStatus getStatus() { return status; }
+    public void setStatus(IncidentStatus status) { this.status = status; }
+    public IncidentPriority getPriority() { return priority; }
+    public void setPriority(IncidentPriority priority) { this.priority = priority; }
+    public String getReportedBy() { return reportedBy; }
+    public void setReportedBy(String reportedBy) { this.reportedBy = reportedBy; }
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+    public Instant getReportedAt() { return reportedAt; }
+    public void setReportedAt(Instant reportedAt) { this.reportedAt = reportedAt; }
+    public boolean isUnread() { return unread; }
+    public void setUnread(boolean unread) { this.unread = unread; }
+    public Instant getChangedAt() { return changedAt; }
+    public void setChangedAt(Instant changedAt) { this.changedAt = changedAt; }
+}
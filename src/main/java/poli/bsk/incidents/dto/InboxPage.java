@@ -0,0 +1,16 @@
+package poli.bsk.incidents.dto;
+
+import java.util.List;
+
+public class InboxPage {
+    private final List<InboxItemDTO> items;
+    private final String nextCursor;
+
+    public InboxPage(List<InboxItemDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<InboxItemDTO> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+}
@@ -0,0 +1,22 @@
+package poli.bsk.incidents.dto;
+
+import java.util.List;
+
+public class InboxVerificationDTO {
+    private final boolean consistent;
+    private final long inboxEntries;
+    private final long databaseEntries;
+    private final List<Long> mismatchedIds;
+
+    public InboxVerificationDTO(boolean consistent, long inboxEntries, long databaseEntries, List<Long> mismatchedIds) {
+        this.consistent = consistent;
+        this.inboxEntries = inboxEntries;
+        this.databaseEntries = databaseEntries;
+        this.mismatchedIds = mismatchedIds;
+    }
+
+    public boolean isConsistent() { return consistent; }
+    public long getInboxEntries() { return inboxEntries; }
+    public long getDatabaseEntries() { return databaseEntries; }
+    public List<Long> getMismatchedIds() { return mismatchedIds; }
+}
@@ -0,0 +1,17 @@
+package poli.bsk.incidents.dto;
+
+public class IncidentChangeDTO {
+    private final String type;
+    private final Long incidentId;
+    private final IncidentSummaryDTO incident;
+
+    public IncidentChangeDTO(String type, Long incidentId, IncidentSummaryDTO incident) {
+        this.type = type;
+        this.incidentId = incidentId;
+        this.incident = incident;
+    }
+
+    public String getType() { return type; }
+    public Long getIncidentId() { return incidentId; }
+    public IncidentSummaryDTO getIncident() { return incident; }
+}
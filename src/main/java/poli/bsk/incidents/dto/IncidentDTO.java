@@ -1,17 +1,22 @@
 package poli.bsk.incidents.dto;
 
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
 import java.time.Instant;
 import java.util.List;
 
 public class IncidentDTO {
     private Long id;
+    private Long version;
     private String title;
     private String description;
     private String reportedBy;
     private Instant reportedAt;
-    private String status;
-    private String priority;
-    private String category;
+    private IncidentStatus status;
+    private IncidentPriority priority;
+    private IncidentCategory category;
     private String assignedTo;
     private String resolution;
     private Instant resolvedAt;
@@ -20,6 +25,8 @@ public class IncidentDTO {
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
     public String getDescription() { return description; }
@@ -28,12 +35,12 @@ public class IncidentDTO {
     public void setReportedBy(String reportedBy) { this.reportedBy = reportedBy; }
     public Instant getReportedAt() { return reportedAt; }
     public void setReportedAt(Instant reportedAt) { this.reportedAt = reportedAt; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
-    public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
-    public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public IncidentStatus getStatus() { return status; }
+    public void setStatus(IncidentStatus status) { this.status = status; }
+    public IncidentPriority getPriority() { return priority; }
+    public void setPriority(IncidentPriority priority) { this.priority = priority; }
+    public IncidentCategory getCategory() { return category; }
+    public void setCategory(IncidentCategory category) { this.category = category; }
     public String getAssignedTo() { return assignedTo; }
     public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
     public String getResolution() { return resolution; }
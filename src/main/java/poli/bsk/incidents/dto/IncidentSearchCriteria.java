@@ -0,0 +1,37 @@
+package poli.bsk.incidents.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.time.Instant;
+
+public class IncidentSearchCriteria {
+    private IncidentStatus status;
+    private IncidentPriority priority;
+    private IncidentCategory category;
+    private String assignedTo;
+    private String reportedBy;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant reportedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private Instant reportedTo;
+
+    public IncidentStatus getStatus() { return status; }
+    public void setStatus(IncidentStatus status) { this.status = status; }
+    public IncidentPriority getPriority() { return priority; }
+    public void setPriority(IncidentPriority priority) { this.priority = priority; }
+    public IncidentCategory getCategory() { return category; }
+    public void setCategory(IncidentCategory category) { this.category = category; }
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+    public String getReportedBy() { return reportedBy; }
+    public void setReportedBy(String reportedBy) { this.reportedBy = reportedBy; }
+    public Instant getReportedFrom() { return reportedFrom; }
+    public void setReportedFrom(Instant reportedFrom) { this.reportedFrom = reportedFrom; }
+    public Instant getReportedTo() { return reportedTo; }
+    public void setReportedTo(Instant reportedTo) { this.reportedTo = reportedTo; }
+}
@@ -0,0 +1,14 @@
+package poli.bsk.incidents.dto;
+
+public class IncidentSearchHitDTO {
+    private final IncidentSummaryDTO incident;
+    private final double score;
+
+    public IncidentSearchHitDTO(IncidentSummaryDTO incident, double score) {
+        this.incident = incident;
+        this.score = score;
+    }
+
+    public IncidentSummaryDTO getIncident() { return incident; }
+    public double getScore() { return score; }
+}
@@ -0,0 +1,28 @@
+package poli.bsk.incidents.dto;
+
+import java.util.Map;
+
+public class IncidentStatsDTO {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byPriority;
+    private Map<String, Long> byCategory;
+    private Map<String, Long> byAssignee;
+    private long resolvedCount;
+    private Double meanTimeToResolveSeconds;
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+    public Map<String, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<String, Long> byStatus) { this.byStatus = byStatus; }
+    public Map<String, Long> getByPriority() { return byPriority; }
+    public void setByPriority(Map<String, Long> byPriority) { this.byPriority = byPriority; }
+    public Map<String, Long> getByCategory() { return byCategory; }
+    public void setByCategory(Map<String, Long> byCategory) { this.byCategory = byCategory; }
+    public Map<String, Long> getByAssignee() { return byAssignee; }
+    public void setByAssignee(Map<String, Long> byAssignee) { this.byAssignee = byAssignee; }
+    public long getResolvedCount() { return resolvedCount; }
+    public void setResolvedCount(long resolvedCount) { this.resolvedCount = resolvedCount; }
+    public Double getMeanTimeToResolveSeconds() { return meanTimeToResolveSeconds; }
+    public void setMeanTimeToResolveSeconds(Double meanTimeToResolveSeconds) { this.meanTimeToResolveSeconds = meanTimeToResolveSeconds; }
+}
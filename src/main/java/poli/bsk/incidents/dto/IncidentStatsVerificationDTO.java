@@ -0,0 +1,17 @@
+package poli.bsk.incidents.dto;
+
+public class IncidentStatsVerificationDTO {
+    private final boolean consistent;
+    private final IncidentStatsDTO counters;
+    private final IncidentStatsDTO database;
+
+    public IncidentStatsVerificationDTO(boolean consistent, IncidentStatsDTO counters, IncidentStatsDTO database) {
+        this.consistent = consistent;
+        this.counters = counters;
+        this.database = database;
+    }
+
+    public boolean isConsistent() { return consistent; }
+    public IncidentStatsDTO getCounters() { return counters; }
+    public IncidentStatsDTO getDatabase() { return database; }
+}
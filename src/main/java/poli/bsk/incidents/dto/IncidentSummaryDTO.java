@@ -0,0 +1,53 @@
+package poli.bsk.incidents.dto;
+
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.time.Instant;
+
+public class IncidentSummaryDTO {
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final String reportedBy;
+    private final Instant reportedAt;
+    private final IncidentStatus status;
+    private final IncidentPriority priority;
+    private final IncidentCategory category;
+    private final String assignedTo;
+    private final Instant resolvedAt;
+
+    public IncidentSummaryDTO(Long id,
+                              String title,
+                              String description,
+                              String reportedBy,
+                              Instant reportedAt,
+                              IncidentStatus status,
+                              IncidentPriority priority,
+                              IncidentCategory category,
+                              String assignedTo,
+                              Instant resolvedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.reportedBy = reportedBy;
+        this.reportedAt = reportedAt;
+        this.status = status;
+        this.priority = priority;
+        this.category = category;
+        this.assignedTo = assignedTo;
+        this.resolvedAt = resolvedAt;
+    }
+
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getReportedBy() { return reportedBy; }
+    public Instant getReportedAt() { return reportedAt; }
+    public IncidentStatus getStatus() { return status; }
+    public IncidentPriority getPriority() { return priority; }
+    public IncidentCategory getCategory() { return category; }
+    public String getAssignedTo() { return assignedTo; }
+    public Instant getResolvedAt() { return resolvedAt; }
+}
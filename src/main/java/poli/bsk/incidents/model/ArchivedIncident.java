@@ -0,0 +1,61 @@
+package poli.bsk.incidents.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Immutable;
+import java.time.Instant;
+import java.util.List;
+
+@Entity
+@Immutable
+@Table(name = "incidents_archive")
+public class ArchivedIncident {
+    @Id
+    private Long id;
+
+    private Long version;
+    private Instant updatedAt;
+    private String title;
+    private String description;
+    private String reportedBy;
+    private Instant reportedAt;
+    private IncidentStatus status;
+    private IncidentPriority priority;
+    private IncidentCategory category;
+    private String assignedTo;
+    private String resolution;
+    private Instant resolvedAt;
+    private Instant archivedAt;
+
+    @ElementCollection
+    @CollectionTable(name = "incident_archive_comments", joinColumns = @JoinColumn(name = "incident_id"))
+    @Column(name = "comments")
+    @BatchSize(size = 500)
+    private List<String> comments;
+
+    @ElementCollection
+    @CollectionTable(name = "incident_archive_attachments", joinColumns = @JoinColumn(name = "incident_id"))
+    @Column(name = "attachments")
+    @BatchSize(size = 500)
+    private List<String> attachments;
+
+    protected ArchivedIncident() {
+    }
+
+    public Long getId() { return id; }
+    public Long getVersion() { return version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public String getTitle() { return title; }
+    public String getDescription() { return description; }
+    public String getReportedBy() { return reportedBy; }
+    public Instant getReportedAt() { return reportedAt; }
+    public IncidentStatus getStatus() { return status; }
+    public IncidentPriority getPriority() { return priority; }
+    public IncidentCategory getCategory() { return category; }
+    public String getAssignedTo() { return assignedTo; }
+    public String getResolution() { return resolution; }
+    public Instant getResolvedAt() { return resolvedAt; }
+    public Instant getArchivedAt() { return archivedAt; }
+    public List<String> getComments() { return comments; }
+    public List<String> getAttachments() { return attachments; }
+}
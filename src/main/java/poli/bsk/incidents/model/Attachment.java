@@ -0,0 +1,58 @@
+package poli.bsk.incidents.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.time.Instant;
+
+@Entity
+@Immutable
+@Table(name = "attachments")
+public class Attachment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attachments_seq")
+    @SequenceGenerator(name = "attachments_seq", sequenceName = "attachments_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long incidentId;
+
+    @Column(nullable = false)
+    private String fileName;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private long fileSize;
+
+    @Column(nullable = false, length = 64)
+    private String sha256;
+
+    private String uploadedBy;
+
+    @Column(nullable = false)
+    private Instant uploadedAt;
+
+    public Attachment() {
+    }
+
+    public Attachment(Long incidentId, String fileName, String contentType, long fileSize, String sha256,
+                      String uploadedBy, Instant uploadedAt) {
+        this.incidentId = incidentId;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.fileSize = fileSize;
+        this.sha256 = sha256;
+        this.uploadedBy = uploadedBy;
+        this.uploadedAt = uploadedAt;
+    }
+
+    public Long getId() { return id; }
+    public Long getIncidentId() { return incidentId; }
+    public String getFileName() { return fileName; }
+    public String getContentType() { return contentType; }
+    public long getFileSize() { return fileSize; }
+    public String getSha256() { return sha256; }
+    public String getUploadedBy() { return uploadedBy; }
+    public Instant getUploadedAt() { return uploadedAt; }
+}
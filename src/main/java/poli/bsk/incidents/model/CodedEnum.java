@@ -0,0 +1,32 @@
+package poli.bsk.incidents.model;
+
+import java.util.Locale;
+
+public interface CodedEnum {
+    short getCode();
+
+    static <E extends Enum<E> & CodedEnum> E fromCode(Class<E> type, Short code) {
+        if (code == null) {
+            return null;
+        }
+        for (E value : type.getEnumConstants()) {
+            if (value.getCode() == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code: " + code);
+    }
+
+    // Accepts the constant name in any case, with spaces or hyphens in place of underscores
+    static <E extends Enum<E>> E fromName(Class<E> type, String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+        try {
+            return Enum.valueOf(type, normalized);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + ": " + name);
+        }
+    }
+}
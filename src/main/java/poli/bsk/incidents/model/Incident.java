@@ -1,31 +1,56 @@
 package poli.bsk.incidents.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SourceType;
+import org.hibernate.annotations.UpdateTimestamp;
 import java.time.Instant;
 import java.util.List;
 
 @Entity
 @Table(name = "incidents")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "incidents")
 public class Incident {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incidents_seq")
+    @SequenceGenerator(name = "incidents_seq", sequenceName = "incidents_seq", allocationSize = 50)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @UpdateTimestamp(source = SourceType.VM)
+    private Instant updatedAt;
+
     private String title;
     private String description;
     private String reportedBy;
     private Instant reportedAt;
-    private String status;
-    private String priority;
-    private String category;
+    private IncidentStatus status;
+    private IncidentPriority priority;
+    private IncidentCategory category;
     private String assignedTo;
     private String resolution;
     private Instant resolvedAt;
 
     @ElementCollection
+    @CollectionTable(name = "incident_comments", joinColumns = @JoinColumn(name = "incident_id"))
+    @Column(name = "comments")
+    @BatchSize(size = 500)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "incident-comments")
     private List<String> comments;
 
     @ElementCollection
+    @CollectionTable(name = "incident_attachments", joinColumns = @JoinColumn(name = "incident_id"))
+    @Column(name = "attachments")
+    @BatchSize(size = 500)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "incident-attachments")
     private List<String> attachments;
 
     public Incident() {
@@ -35,9 +60,9 @@ public class Incident {
                     String description,
                     String reportedBy,
                     Instant reportedAt,
-                    String status,
-                    String priority,
-                    String category,
+                    IncidentStatus status,
+                    IncidentPriority priority,
+                    IncidentCategory category,
                     String assignedTo,
                     String resolution,
                     Instant resolvedAt,
@@ -59,6 +84,10 @@ public class Incident {
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
     public String getDescription() { return description; }
@@ -67,12 +96,12 @@ public class Incident {
     public void setReportedBy(String reportedBy) { this.reportedBy = reportedBy; }
     public Instant getReportedAt() { return reportedAt; }
     public void setReportedAt(Instant reportedAt) { this.reportedAt = reportedAt; }
-    public String getStatus() { return status; }
-    public void setStatus(String status) { this.status = status; }
-    public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
-    public String getCategory() { return category; }
-    public void setCategory(String category) { this.category = category; }
+    public IncidentStatus getStatus() { return status; }
+    public void setStatus(IncidentStatus status) { this.status = status; }
+    public IncidentPriority getPriority() { return priority; }
+    public void setPriority(IncidentPriority priority) { this.priority = priority; }
+    public IncidentCategory getCategory() { return category; }
+    public void setCategory(IncidentCategory category) { this.category = category; }
     public String getAssignedTo() { return assignedTo; }
     public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
     public String getResolution() { return resolution; }
@@ -0,0 +1,36 @@
+package poli.bsk.incidents.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import jakarta.persistence.EnumeratedValue;
+
+public enum IncidentCategory implements CodedEnum {
+    MALWARE(1, "Malware"),
+    PHISHING(2, "Phishing"),
+    DDOS(3, "DDoS"),
+    DATA_BREACH(4, "Data Breach"),
+    UNAUTHORIZED_ACCESS(5, "Unauthorized Access"),
+    SYSTEM_OUTAGE(6, "System Outage"),
+    OTHER(7, "Other");
+
+    @EnumeratedValue
+    private final int code;
+    private final String label;
+
+    IncidentCategory(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    @Override
+    public short getCode() { return (short) code; }
+
+    // The frontend sends and displays the label, so it stays the JSON representation
+    @JsonValue
+    public String getLabel() { return label; }
+
+    @JsonCreator
+    public static IncidentCategory from(String value) {
+        return CodedEnum.fromName(IncidentCategory.class, value);
+    }
+}
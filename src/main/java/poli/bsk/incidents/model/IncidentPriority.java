@@ -0,0 +1,26 @@
+package poli.bsk.incidents.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import jakarta.persistence.EnumeratedValue;
+
+public enum IncidentPriority implements CodedEnum {
+    LOW(1),
+    MEDIUM(2),
+    HIGH(3),
+    CRITICAL(4);
+
+    @EnumeratedValue
+    private final int code;
+
+    IncidentPriority(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public short getCode() { return (short) code; }
+
+    @JsonCreator
+    public static IncidentPriority from(String value) {
+        return CodedEnum.fromName(IncidentPriority.class, value);
+    }
+}
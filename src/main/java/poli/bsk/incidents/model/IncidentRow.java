@@ -0,0 +1,49 @@
+package poli.bsk.incidents.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// Status, priority and category hold the short codes written by the JPA converters
+@Table("incidents")
+public class IncidentRow {
+    @Id
+    private Long id;
+    private Long version;
+    private String title;
+    private String description;
+    private String reportedBy;
+    private Instant reportedAt;
+    private Short status;
+    private Short priority;
+    private Short category;
+    private String assignedTo;
+    private String resolution;
+    private Instant resolvedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getReportedBy() { return reportedBy; }
+    public void setReportedBy(String reportedBy) { this.reportedBy = reportedBy; }
+    public Instant getReportedAt() { return reportedAt; }
+    public void setReportedAt(Instant reportedAt) { this.reportedAt = reportedAt; }
+    public Short getStatus() { return status; }
+    public void setStatus(Short status) { this.status = status; }
+    public Short getPriority() { return priority; }
+    public void setPriority(Short priority) { this.priority = priority; }
+    public Short getCategory() { return category; }
+    public void setCategory(Short category) { this.category = category; }
+    public String getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(String assignedTo) { this.assignedTo = assignedTo; }
+    public String getResolution() { return resolution; }
+    public void setResolution(String resolution) { this.resolution = resolution; }
+    public Instant getResolvedAt() { return resolvedAt; }
+    public void setResolvedAt(Instant resolvedAt) { this.resolvedAt = resolvedAt; }
+}
@@ -0,0 +1,46 @@
+package poli.bsk.incidents.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import jakarta.persistence.EnumeratedValue;
+
+import java.util.Set;
+
+public enum IncidentStatus implements CodedEnum {
+    OPEN(1),
+    IN_PROGRESS(2),
+    RESOLVED(3),
+    CLOSED(4);
+
+    // Persisted in place of the ordinal, so constants can be reordered or added without rewriting rows
+    @EnumeratedValue
+    private final int code;
+
+    IncidentStatus(int code) {
+        this.code = code;
+    }
+
+    @Override
+    public short getCode() { return (short) code; }
+
+    public boolean isActive() {
+        return this == OPEN || this == IN_PROGRESS;
+    }
+
+    public Set<IncidentStatus> nextStatuses() {
+        return switch (this) {
+            case OPEN -> Set.of(IN_PROGRESS, CLOSED);
+            case IN_PROGRESS -> Set.of(OPEN, RESOLVED);
+            case RESOLVED -> Set.of(IN_PROGRESS, CLOSED);
+            case CLOSED -> Set.of();
+        };
+    }
+
+    public boolean canTransitionTo(IncidentStatus next) {
+        return this == next || nextStatuses().contains(next);
+    }
+
+    @JsonCreator
+    public static IncidentStatus from(String value) {
+        return CodedEnum.fromName(IncidentStatus.class, value);
+    }
+}
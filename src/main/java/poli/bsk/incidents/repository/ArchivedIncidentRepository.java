@@ -0,0 +1,47 @@
+package poli.bsk.incidents.repository;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import poli.bsk.incidents.model.ArchivedIncident;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedIncidentRepository extends JpaRepository<ArchivedIncident, Long>, IncidentProjectionRepository {
+    Optional<EntityVersion> findVersionById(Long id);
+
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit, Class<T> type);
+    <T> List<T> findByStatusAndIdGreaterThanOrderByIdAsc(IncidentStatus status, Long after, Limit limit, Class<T> type);
+    <T> List<T> findByPriorityAndIdGreaterThanOrderByIdAsc(IncidentPriority priority, Long after, Limit limit, Class<T> type);
+    <T> List<T> findByReportedByAndIdGreaterThanOrderByIdAsc(String reportedBy, Long after, Limit limit, Class<T> type);
+    <T> List<T> findByAssignedToAndIdGreaterThanOrderByIdAsc(String assignedTo, Long after, Limit limit, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incidents_archive"))
+    @Modifying
+    @Query(value = "insert into incidents_archive (id, version, updated_at, title, description, reported_by, reported_at, status, "
+            + "priority, category, assigned_to, resolution, resolved_at, archived_at) "
+            + "select id, version, updated_at, title, description, reported_by, reported_at, status, "
+            + "priority, category, assigned_to, resolution, resolved_at, :archivedAt from incidents where id in :ids", nativeQuery = true)
+    int copyFromIncidents(Collection<Long> ids, Instant archivedAt);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incident_archive_comments"))
+    @Modifying
+    @Query(value = "insert into incident_archive_comments (incident_id, comments) "
+            + "select incident_id, comments from incident_comments where incident_id in :ids", nativeQuery = true)
+    int copyComments(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incident_archive_attachments"))
+    @Modifying
+    @Query(value = "insert into incident_archive_attachments (incident_id, attachments) "
+            + "select incident_id, attachments from incident_attachments where incident_id in :ids", nativeQuery = true)
+    int copyAttachments(Collection<Long> ids);
+}
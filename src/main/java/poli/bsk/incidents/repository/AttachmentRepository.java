@@ -0,0 +1,22 @@
+package poli.bsk.incidents.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import poli.bsk.incidents.model.Attachment;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AttachmentRepository extends JpaRepository<Attachment, Long> {
+    List<Attachment> findByIncidentIdOrderByIdAsc(Long incidentId);
+    Optional<Attachment> findByIdAndIncidentId(Long id, Long incidentId);
+    long countBySha256(String sha256);
+
+    @Query("select distinct a.sha256 from Attachment a where a.incidentId = :incidentId")
+    List<String> findSha256ByIncidentId(Long incidentId);
+
+    @Modifying
+    @Query("delete from Attachment a where a.incidentId = :incidentId")
+    int deleteByIncidentId(Long incidentId);
+}
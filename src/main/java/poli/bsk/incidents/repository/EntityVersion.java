@@ -0,0 +1,8 @@
+package poli.bsk.incidents.repository;
+
+import java.time.Instant;
+
+public interface EntityVersion {
+    Long getVersion();
+    Instant getUpdatedAt();
+}
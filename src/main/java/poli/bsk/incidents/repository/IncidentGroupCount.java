@@ -0,0 +1,6 @@
+package poli.bsk.incidents.repository;
+
+public interface IncidentGroupCount {
+    Object getName();
+    Long getTotal();
+}
@@ -0,0 +1,17 @@
+package poli.bsk.incidents.repository;
+
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.time.Instant;
+
+public interface IncidentInboxRow {
+    Long getId();
+    String getTitle();
+    IncidentStatus getStatus();
+    IncidentPriority getPriority();
+    String getReportedBy();
+    String getAssignedTo();
+    Instant getReportedAt();
+    Long getVersion();
+}
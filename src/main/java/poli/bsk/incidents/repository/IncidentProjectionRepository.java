@@ -0,0 +1,11 @@
+package poli.bsk.incidents.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface IncidentProjectionRepository {
+    // Keyset page selecting only the given scalar attributes; attribute == null matches every row
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Class<?> entityType, Collection<String> fields,
+                                                        String attribute, Object value, Long after, int limit);
+}
@@ -1,13 +1,135 @@
 package poli.bsk.incidents.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface IncidentRepository extends JpaRepository<Incident, Long> {
-    List<Incident> findByStatus(String status);
-    List<Incident> findByPriority(String priority);
-    List<Incident> findByReportedBy(String reportedBy);
-    List<Incident> findByAssignedTo(String assignedTo);
+public interface IncidentRepository extends JpaRepository<Incident, Long>, JpaSpecificationExecutor<Incident>,
+        IncidentProjectionRepository {
+    <T> List<T> findByIdIn(Collection<Long> ids, Class<T> type);
+
+    // Finder results go to the query cache; Hibernate drops them whenever a write touches their tables
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "incident-queries")})
+    Optional<EntityVersion> findVersionById(Long id);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "incident-queries")})
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit, Class<T> type);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "incident-queries")})
+    <T> List<T> findByStatusAndIdGreaterThanOrderByIdAsc(IncidentStatus status, Long after, Limit limit, Class<T> type);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "incident-queries")})
+    <T> List<T> findByPriorityAndIdGreaterThanOrderByIdAsc(IncidentPriority priority, Long after, Limit limit, Class<T> type);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "incident-queries")})
+    <T> List<T> findByReportedByAndIdGreaterThanOrderByIdAsc(String reportedBy, Long after, Limit limit, Class<T> type);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "incident-queries")})
+    <T> List<T> findByAssignedToAndIdGreaterThanOrderByIdAsc(String assignedTo, Long after, Limit limit, Class<T> type);
+
+    @Query("select i.status as name, count(i) as total from Incident i group by i.status")
+    List<IncidentGroupCount> countGroupedByStatus();
+
+    @Query("select i.priority as name, count(i) as total from Incident i group by i.priority")
+    List<IncidentGroupCount> countGroupedByPriority();
+
+    @Query("select i.category as name, count(i) as total from Incident i group by i.category")
+    List<IncidentGroupCount> countGroupedByCategory();
+
+    @Query("select i.assignedTo as name, count(i) as total from Incident i group by i.assignedTo")
+    List<IncidentGroupCount> countGroupedByAssignee();
+
+    // Single-row counter behind the list ETags, bumped by IncidentCollectionVersionTracker
+    @Query(value = "select version from incident_collection_version", nativeQuery = true)
+    long findCollectionVersion();
+
+    // The declared space keeps Hibernate from invalidating every second-level cache region on this native update
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incident_collection_version"))
+    @Query(value = "update incident_collection_version set version = version + 1", nativeQuery = true)
+    int incrementCollectionVersion();
+
+    @Query("select count(i) as resolved, sum((i.resolvedAt - i.reportedAt) by second) as totalSeconds from Incident i "
+            + "where i.resolvedAt is not null and i.reportedAt is not null")
+    IncidentResolutionTotals sumResolutionTimes();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select i.id as id, i.title as title, i.status as status, i.priority as priority, i.reportedBy as reportedBy, "
+            + "i.assignedTo as assignedTo, i.reportedAt as reportedAt, i.version as version from Incident i "
+            + "where i.status is null or i.status in :activeStatuses order by i.id")
+    Stream<IncidentInboxRow> streamActiveForInbox(Collection<IncidentStatus> activeStatuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Incident i set i.version = i.version + 1, i.updatedAt = :now where i.id = :id")
+    int incrementVersion(Long id, Instant now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Incident i set i.version = i.version + 1, i.updatedAt = :now where i.id = :id and i.version = :version")
+    int incrementVersion(Long id, Long version, Instant now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incident_comments"))
+    @Modifying
+    @Query(value = "insert into incident_comments (incident_id, comments) values (:id, :comment)", nativeQuery = true)
+    int insertComment(Long id, String comment);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Incident i where i.resolvedAt < :cutoff and i.status in :statuses order by i.id")
+    List<Incident> findArchivable(Instant cutoff, Collection<IncidentStatus> statuses, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incident_comments"))
+    @Modifying
+    @Query(value = "delete from incident_comments where incident_id in :ids", nativeQuery = true)
+    int deleteComments(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incident_attachments"))
+    @Modifying
+    @Query(value = "delete from incident_attachments where incident_id in :ids", nativeQuery = true)
+    int deleteAttachments(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "incidents"))
+    @Modifying(clearAutomatically = true)
+    @Query(value = "delete from incidents where id in :ids", nativeQuery = true)
+    int deleteAllByIds(Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select i.id as id, i.version as version, i.status as status, i.priority as priority, i.category as category, "
+            + "i.assignedTo as assignedTo, i.reportedAt as reportedAt, i.resolvedAt as resolvedAt from Incident i")
+    Stream<IncidentStatsRow> streamAllForStats();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    <T> Stream<T> streamAllByOrderByIdAsc(Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    <T> Stream<T> streamByStatusOrderByIdAsc(IncidentStatus status, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    <T> Stream<T> streamByPriorityOrderByIdAsc(IncidentPriority priority, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    <T> Stream<T> streamByReportedByOrderByIdAsc(String reportedBy, Class<T> type);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    <T> Stream<T> streamByAssignedToOrderByIdAsc(String assignedTo, Class<T> type);
 }
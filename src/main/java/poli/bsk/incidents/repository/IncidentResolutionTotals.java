@@ -0,0 +1,6 @@
+package poli.bsk.incidents.repository;
+
+public interface IncidentResolutionTotals {
+    Long getResolved();
+    Long getTotalSeconds();
+}
@@ -0,0 +1,45 @@
+package poli.bsk.incidents.repository;
+
+import org.springframework.data.jpa.domain.Specification;
+import poli.bsk.incidents.dto.IncidentSearchCriteria;
+import poli.bsk.incidents.model.Incident;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class IncidentSpecifications {
+
+    private IncidentSpecifications() {
+    }
+
+    public static Specification<Incident> matching(IncidentSearchCriteria criteria) {
+        List<Specification<Incident>> specifications = new ArrayList<>();
+        addEqual(specifications, "status", criteria.getStatus());
+        addEqual(specifications, "priority", criteria.getPriority());
+        addEqual(specifications, "category", criteria.getCategory());
+        addEqual(specifications, "assignedTo", criteria.getAssignedTo());
+        addEqual(specifications, "reportedBy", criteria.getReportedBy());
+        if (criteria.getReportedFrom() != null) {
+            specifications.add(reportedAtFrom(criteria.getReportedFrom()));
+        }
+        if (criteria.getReportedTo() != null) {
+            specifications.add(reportedAtBefore(criteria.getReportedTo()));
+        }
+        return Specification.allOf(specifications);
+    }
+
+    private static void addEqual(List<Specification<Incident>> specifications, String attribute, Object value) {
+        if (value != null && !"".equals(value)) {
+            specifications.add((root, query, cb) -> cb.equal(root.get(attribute), value));
+        }
+    }
+
+    private static Specification<Incident> reportedAtFrom(Instant from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("reportedAt"), from);
+    }
+
+    private static Specification<Incident> reportedAtBefore(Instant to) {
+        return (root, query, cb) -> cb.lessThan(root.get("reportedAt"), to);
+    }
+}
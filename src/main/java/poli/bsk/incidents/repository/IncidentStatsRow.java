@@ -0,0 +1,18 @@
+package poli.bsk.incidents.repository;
+
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+
+import java.time.Instant;
+
+public interface IncidentStatsRow {
+    Long getId();
+    Long getVersion();
+    IncidentStatus getStatus();
+    IncidentPriority getPriority();
+    IncidentCategory getCategory();
+    String getAssignedTo();
+    Instant getReportedAt();
+    Instant getResolvedAt();
+}
@@ -0,0 +1,14 @@
+package poli.bsk.incidents.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import poli.bsk.incidents.model.IncidentRow;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveIncidentRepository extends ReactiveCrudRepository<IncidentRow, Long> {
+    Flux<IncidentRow> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+    Flux<IncidentRow> findByStatusAndIdGreaterThanOrderByIdAsc(Short status, Long after, Limit limit);
+    Flux<IncidentRow> findByPriorityAndIdGreaterThanOrderByIdAsc(Short priority, Long after, Limit limit);
+    Flux<IncidentRow> findByReportedByAndIdGreaterThanOrderByIdAsc(String reportedBy, Long after, Limit limit);
+    Flux<IncidentRow> findByAssignedToAndIdGreaterThanOrderByIdAsc(String assignedTo, Long after, Limit limit);
+}
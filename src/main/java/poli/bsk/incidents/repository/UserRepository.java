@@ -8,5 +8,6 @@ import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    Optional<EntityVersion> findVersionById(Long id);
     List<User> findByRole(String role);
 }
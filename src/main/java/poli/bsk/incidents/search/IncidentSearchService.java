@@ -0,0 +1,115 @@
+package poli.bsk.incidents.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import poli.bsk.incidents.dto.CursorPage;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSearchHitDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.service.IncidentChangedEvent;
+import poli.bsk.incidents.service.IncidentFilter;
+import poli.bsk.incidents.service.IncidentService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class IncidentSearchService {
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final IncidentSearchIndex index = new IncidentSearchIndex();
+    private final Map<Long, Long> indexedVersions = new ConcurrentHashMap<>();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private final IncidentService incidentService;
+    private final IncidentRepository incidentRepository;
+
+    @Autowired
+    public IncidentSearchService(IncidentService incidentService, IncidentRepository incidentRepository) {
+        this.incidentService = incidentService;
+        this.incidentRepository = incidentRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // Loaded under the write lock: changes committed meanwhile wait and are then applied on top of the snapshot
+        rebuildLock.writeLock().lock();
+        try {
+            index.clear();
+            indexedVersions.clear();
+            Long after = null;
+            do {
+                CursorPage<IncidentDTO> page = incidentService.getIncidentDetails(IncidentFilter.ALL, null, after, REBUILD_BATCH_SIZE);
+                for (IncidentDTO incident : page.getItems()) {
+                    index(incident);
+                    if (incident.getVersion() != null) {
+                        indexedVersions.put(incident.getId(), incident.getVersion());
+                    }
+                }
+                after = page.getNextCursor();
+            } while (after != null);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        IncidentDTO incident = event.getIncident();
+        rebuildLock.readLock().lock();
+        try {
+            // compute() serialises concurrent changes to the same incident; one committed earlier but delivered
+            // later carries an older version and is skipped
+            indexedVersions.compute(event.getIncidentId(), (id, current) -> {
+                if (incident == null) {
+                    index.remove(id);
+                    return null;
+                }
+                if (current != null && incident.getVersion() != null && incident.getVersion() < current) {
+                    return current;
+                }
+                index(incident);
+                return incident.getVersion() != null ? incident.getVersion() : current;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<IncidentSearchHitDTO> search(String query, Pageable pageable) {
+        IncidentSearchIndex.Results results;
+        rebuildLock.readLock().lock();
+        try {
+            results = index.search(query, pageable.getOffset(), pageable.getPageSize());
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+        List<Long> ids = results.getHits().stream().map(IncidentSearchIndex.Hit::getId).toList();
+        Map<Long, IncidentSummaryDTO> summaries = incidentRepository.findByIdIn(ids, IncidentSummaryDTO.class).stream()
+                .collect(Collectors.toMap(IncidentSummaryDTO::getId, Function.identity()));
+
+        List<IncidentSearchHitDTO> hits = results.getHits().stream()
+                .filter(hit -> summaries.containsKey(hit.getId()))
+                .map(hit -> new IncidentSearchHitDTO(summaries.get(hit.getId()), hit.getScore()))
+                .toList();
+        // Hits whose incident is already gone are dropped from the page and from the total
+        return new PageImpl<>(hits, pageable, results.getTotal() - (results.getHits().size() - hits.size()));
+    }
+
+    private void index(IncidentDTO incident) {
+        index.index(incident.getId(), incident.getTitle(), incident.getDescription(), incident.getComments());
+    }
+}
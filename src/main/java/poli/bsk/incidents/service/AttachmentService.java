@@ -0,0 +1,215 @@
+package poli.bsk.incidents.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import poli.bsk.incidents.dto.AttachmentDTO;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.Attachment;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.repository.AttachmentRepository;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+@Service
+public class AttachmentService {
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int CONTENT_LOCK_STRIPES = 64;
+
+    private final AttachmentRepository attachmentRepository;
+    private final IncidentRepository incidentRepository;
+    private final IncidentService incidentService;
+    private final AttachmentStore attachmentStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Lock[] contentLocks = new Lock[CONTENT_LOCK_STRIPES];
+
+    @Autowired
+    public AttachmentService(AttachmentRepository attachmentRepository,
+                             IncidentRepository incidentRepository,
+                             IncidentService incidentService,
+                             AttachmentStore attachmentStore,
+                             ApplicationEventPublisher eventPublisher,
+                             PlatformTransactionManager transactionManager) {
+        this.attachmentRepository = attachmentRepository;
+        this.incidentRepository = incidentRepository;
+        this.incidentService = incidentService;
+        this.attachmentStore = attachmentStore;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < contentLocks.length; i++) {
+            contentLocks[i] = new ReentrantLock();
+        }
+    }
+
+    // The content is staged on disk before the transaction starts, so a slow upload never holds a connection.
+    // It is moved into the store inside the transaction and removed again if that rolls back.
+    // Returns empty if the incident does not exist (or has been archived).
+    public Optional<AttachmentDTO> upload(Long incidentId, String fileName, String contentType,
+                                          InputStream content, String uploadedBy) throws IOException {
+        if (!incidentRepository.existsById(incidentId)) {
+            return Optional.empty();
+        }
+        AttachmentStore.StagedContent staged = attachmentStore.stage(content);
+        boolean[] published = new boolean[1];
+        AttachmentDTO created = null;
+        Lock lock = contentLock(staged.getSha256());
+        lock.lock();
+        try {
+            created = transactionTemplate.execute(status -> {
+                if (!touchIncident(incidentId)) {
+                    return null;
+                }
+                try {
+                    published[0] = attachmentStore.publish(staged);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                Attachment attachment = attachmentRepository.save(new Attachment(incidentId, truncate(fileName),
+                        truncate(contentType), staged.getSize(), staged.getSha256(), uploadedBy, IncidentService.now()));
+                return convertToDTO(attachment);
+            });
+            return Optional.ofNullable(created);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            try {
+                if (created == null && published[0]) {
+                    attachmentStore.delete(staged.getSha256());
+                }
+            } finally {
+                lock.unlock();
+                attachmentStore.discard(staged);
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttachmentDTO> getAttachments(Long incidentId) {
+        return attachmentRepository.findByIncidentIdOrderByIdAsc(incidentId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<AttachmentDTO> getAttachment(Long incidentId, Long attachmentId) {
+        return attachmentRepository.findByIdAndIncidentId(attachmentId, incidentId)
+                .map(this::convertToDTO);
+    }
+
+    // The stored file may be shared with other attachments; it is removed once no row references it
+    @Transactional
+    public boolean deleteAttachment(Long incidentId, Long attachmentId) {
+        Optional<Attachment> attachment = attachmentRepository.findByIdAndIncidentId(attachmentId, incidentId);
+        if (attachment.isEmpty()) {
+            return false;
+        }
+        attachmentRepository.delete(attachment.get());
+        touchIncident(incidentId);
+        releaseContentAfterCommit(List.of(attachment.get().getSha256()));
+        return true;
+    }
+
+    public boolean hasContent(AttachmentDTO attachment) {
+        return attachmentStore.exists(attachment.getSha256());
+    }
+
+    public Path contentPath(AttachmentDTO attachment) {
+        return attachmentStore.path(attachment.getSha256());
+    }
+
+    public void transfer(AttachmentDTO attachment, long position, long count, WritableByteChannel target) throws IOException {
+        attachmentStore.transfer(attachment.getSha256(), position, count, target);
+    }
+
+    // Runs inside the deleting transaction, so the metadata goes together with the incident
+    @EventListener
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        if (event.getType() == IncidentChangedEvent.Type.DELETED) {
+            List<String> hashes = attachmentRepository.findSha256ByIncidentId(event.getIncidentId());
+            attachmentRepository.deleteByIncidentId(event.getIncidentId());
+            releaseContentAfterCommit(hashes);
+        }
+    }
+
+    private void releaseContentAfterCommit(List<String> hashes) {
+        if (hashes.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                hashes.forEach(AttachmentService.this::releaseContent);
+            }
+        });
+    }
+
+    // Under the same lock as upload(), so a concurrent upload of this content either commits its row before the
+    // count or publishes the file again after the delete
+    private void releaseContent(String sha256) {
+        Lock lock = contentLock(sha256);
+        lock.lock();
+        try {
+            if (attachmentRepository.countBySha256(sha256) == 0) {
+                attachmentStore.delete(sha256);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete unreferenced attachment content {}", sha256, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Lock contentLock(String sha256) {
+        return contentLocks[Math.floorMod(sha256.hashCode(), contentLocks.length)];
+    }
+
+    // Attachments are part of the incident's state, so they move its version (and the ETags built from it)
+    private boolean touchIncident(Long incidentId) {
+        if (incidentRepository.incrementVersion(incidentId, IncidentService.now()) == 0) {
+            return false;
+        }
+        Incident incident = incidentRepository.findById(incidentId).orElseThrow();
+        IncidentSummaryDTO summary = incidentService.convertToSummary(incident);
+        IncidentDTO result = incidentService.convertToDTO(incident);
+        eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, incidentId, summary, result));
+        return true;
+    }
+
+    private static String truncate(String value) {
+        return value.length() > MAX_NAME_LENGTH ? value.substring(0, MAX_NAME_LENGTH) : value;
+    }
+
+    private AttachmentDTO convertToDTO(Attachment attachment) {
+        AttachmentDTO dto = new AttachmentDTO();
+        dto.setId(attachment.getId());
+        dto.setIncidentId(attachment.getIncidentId());
+        dto.setFileName(attachment.getFileName());
+        dto.setContentType(attachment.getContentType());
+        dto.setSize(attachment.getFileSize());
+        dto.setSha256(attachment.getSha256());
+        dto.setUploadedBy(attachment.getUploadedBy());
+        dto.setUploadedAt(attachment.getUploadedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,147 @@
+package poli.bsk.incidents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Content-addressed blob store on local disk: files live under <dir>/<ab>/<cd>/<sha256>, so identical
+// uploads share one file. Content is streamed in fixed-size chunks and never held in memory as a whole.
+@Component
+public class AttachmentStore {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+
+    @Autowired
+    public AttachmentStore(@Value("${app.attachments.dir:data/attachments}") Path root,
+                           @Value("${app.attachments.max-size:50MB}") DataSize maxSize) {
+        this.root = root.toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+        this.maxSize = maxSize.toBytes();
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create attachment directory " + incoming, e);
+        }
+    }
+
+    // Hashes while writing to a temporary file on the same file system; publish() renames it into place
+    public StagedContent stage(InputStream content) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long size = 0;
+            try (InputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxSize) {
+                        throw new AttachmentTooLargeException(maxSize);
+                    }
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new StagedContent(HexFormat.of().formatHex(digest.digest()), size, temp);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Returns whether this call created the file; false when the same content is already stored
+    public boolean publish(StagedContent staged) throws IOException {
+        Path target = path(staged.getSha256());
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(staged.temp, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            // Same content stored concurrently; the existing file is identical
+            return false;
+        }
+    }
+
+    public void discard(StagedContent staged) throws IOException {
+        Files.deleteIfExists(staged.temp);
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(path(sha256));
+    }
+
+    public boolean exists(String sha256) {
+        return Files.isRegularFile(path(sha256));
+    }
+
+    // FileChannel.transferTo lets the kernel move the bytes (sendfile) when the target is a socket or file channel
+    public void transfer(String sha256, long position, long count, WritableByteChannel target) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(sha256), StandardOpenOption.READ)) {
+            long end = position + count;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    throw new IOException("Attachment " + sha256 + " ended before byte " + end);
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    public Path path(String sha256) {
+        if (sha256.length() != 64 || !sha256.chars().allMatch(HexFormat::isHexDigit)) {
+            throw new IllegalArgumentException("not a sha256 hash: " + sha256);
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class StagedContent {
+        private final String sha256;
+        private final long size;
+        private final Path temp;
+
+        StagedContent(String sha256, long size, Path temp) {
+            this.sha256 = sha256;
+            this.size = size;
+            this.temp = temp;
+        }
+
+        public String getSha256() { return sha256; }
+        public long getSize() { return size; }
+    }
+}
@@ -0,0 +1,12 @@
+package poli.bsk.incidents.service;
+
+public class AttachmentTooLargeException extends RuntimeException {
+    private final long maxSize;
+
+    public AttachmentTooLargeException(long maxSize) {
+        super("attachment exceeds " + maxSize + " bytes");
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxSize() { return maxSize; }
+}
@@ -0,0 +1,112 @@
+package poli.bsk.incidents.service;
+
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentInboxRow;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Objects;
+
+final class InboxEntry {
+    // Highest priority first, then oldest first; the id keeps the order total
+    static final Comparator<InboxEntry> ORDER = Comparator.comparingInt((InboxEntry entry) -> entry.rank)
+            .thenComparing(entry -> entry.reportedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(entry -> entry.id);
+
+    private static final String NO_TIMESTAMP = "n";
+
+    private final Long id;
+    private final String title;
+    private final IncidentStatus status;
+    private final IncidentPriority priority;
+    private final String reportedBy;
+    private final String assignedTo;
+    private final Instant reportedAt;
+    private final Long version;
+    private final int rank;
+
+    private InboxEntry(Long id, String title, IncidentStatus status, IncidentPriority priority, String reportedBy,
+                       String assignedTo, Instant reportedAt, Long version, int rank) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.reportedBy = reportedBy;
+        this.assignedTo = assignedTo;
+        this.reportedAt = reportedAt;
+        this.version = version;
+        this.rank = rank;
+    }
+
+    static InboxEntry of(IncidentDTO incident) {
+        return new InboxEntry(incident.getId(), incident.getTitle(), incident.getStatus(), incident.getPriority(),
+                incident.getReportedBy(), incident.getAssignedTo(), truncate(incident.getReportedAt()), incident.getVersion(),
+                rank(incident.getPriority()));
+    }
+
+    static InboxEntry of(IncidentInboxRow row) {
+        return new InboxEntry(row.getId(), row.getTitle(), row.getStatus(), row.getPriority(),
+                row.getReportedBy(), row.getAssignedTo(), truncate(row.getReportedAt()), row.getVersion(),
+                rank(row.getPriority()));
+    }
+
+    // Cursors carry the sort key rather than the id, so paging survives the last seen incident leaving the inbox
+    static InboxEntry fromCursor(String cursor) {
+        String[] parts = cursor.split("\\.");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+        try {
+            Instant reportedAt = NO_TIMESTAMP.equals(parts[1])
+                    ? null
+                    : Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            return new InboxEntry(Long.valueOf(parts[3]), null, null, null, null, null, reportedAt, null,
+                    Integer.parseInt(parts[0]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+    }
+
+    String cursor() {
+        String timestamp = reportedAt == null
+                ? NO_TIMESTAMP + "." + NO_TIMESTAMP
+                : reportedAt.getEpochSecond() + "." + reportedAt.getNano();
+        return rank + "." + timestamp + "." + id;
+    }
+
+    boolean isNewerThan(InboxEntry other) {
+        return version == null || other.version == null || version >= other.version;
+    }
+
+    boolean sameContent(InboxEntry other) {
+        return other != null
+                && Objects.equals(id, other.id)
+                && Objects.equals(title, other.title)
+                && Objects.equals(status, other.status)
+                && Objects.equals(priority, other.priority)
+                && Objects.equals(reportedBy, other.reportedBy)
+                && Objects.equals(assignedTo, other.assignedTo)
+                && Objects.equals(reportedAt, other.reportedAt);
+    }
+
+    Long getId() { return id; }
+    String getTitle() { return title; }
+    IncidentStatus getStatus() { return status; }
+    IncidentPriority getPriority() { return priority; }
+    String getReportedBy() { return reportedBy; }
+    String getAssignedTo() { return assignedTo; }
+    Instant getReportedAt() { return reportedAt; }
+
+    // Timestamps come back from the database with microsecond precision
+    private static Instant truncate(Instant instant) {
+        return instant != null ? instant.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+
+    private static int rank(IncidentPriority priority) {
+        int lowest = IncidentPriority.values().length - 1;
+        return priority != null ? lowest - priority.ordinal() : lowest + 1;
+    }
+}
@@ -0,0 +1,6 @@
+package poli.bsk.incidents.service;
+
+public enum InboxView {
+    ASSIGNED,
+    REPORTED
+}
@@ -0,0 +1,208 @@
+package poli.bsk.incidents.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import poli.bsk.incidents.dto.CursorPage;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.ArchivedIncident;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.ArchivedIncidentRepository;
+import poli.bsk.incidents.repository.EntityVersion;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class IncidentArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(IncidentArchiveService.class);
+    private static final Set<IncidentStatus> ARCHIVABLE_STATUSES = EnumSet.of(IncidentStatus.RESOLVED, IncidentStatus.CLOSED);
+
+    private final IncidentService incidentService;
+    private final IncidentRepository incidentRepository;
+    private final ArchivedIncidentRepository archivedIncidentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+    private final Duration maxAge;
+    private final int chunkSize;
+
+    @Autowired
+    public IncidentArchiveService(IncidentService incidentService,
+                                  IncidentRepository incidentRepository,
+                                  ArchivedIncidentRepository archivedIncidentRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.incidents.archive.max-age:365d}") Duration maxAge,
+                                  @Value("${app.incidents.archive.chunk-size:500}") int chunkSize) {
+        this.incidentService = incidentService;
+        this.incidentRepository = incidentRepository;
+        this.archivedIncidentRepository = archivedIncidentRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAge = maxAge;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${app.incidents.archive.cron:0 30 2 * * *}")
+    public void scheduledArchive() {
+        archiveResolved();
+    }
+
+    // Moves incidents resolved before now - max-age into the archive, one transaction per chunk so
+    // row locks stay short and a failure only rolls back the current chunk. Returns -1 if a run is already active.
+    public int archiveResolved() {
+        if (!running.tryLock()) {
+            return -1;
+        }
+        try {
+            Instant cutoff = Instant.now().minus(maxAge);
+            int total = 0;
+            int archived;
+            do {
+                archived = transactionTemplate.execute(status -> archiveChunk(cutoff));
+                total += archived;
+            } while (archived == chunkSize);
+            if (total > 0) {
+                log.info("Archived {} incidents resolved before {}", total, cutoff);
+            }
+            return total;
+        } finally {
+            running.unlock();
+        }
+    }
+
+    private int archiveChunk(Instant cutoff) {
+        List<Incident> incidents = incidentRepository.findArchivable(cutoff, ARCHIVABLE_STATUSES, Limit.of(chunkSize));
+        if (incidents.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = incidents.stream().map(Incident::getId).toList();
+        List<IncidentSummaryDTO> previous = incidents.stream().map(incidentService::convertToSummary).toList();
+        archivedIncidentRepository.copyFromIncidents(ids, Instant.now());
+        archivedIncidentRepository.copyComments(ids);
+        archivedIncidentRepository.copyAttachments(ids);
+        incidentRepository.deleteComments(ids);
+        incidentRepository.deleteAttachments(ids);
+        incidentRepository.deleteAllByIds(ids);
+        for (IncidentSummaryDTO summary : previous) {
+            eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.ARCHIVED, summary.getId(), summary, null));
+        }
+        return ids.size();
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<IncidentDTO> getIncidentById(Long id) {
+        return incidentService.getIncidentById(id)
+                .or(() -> archivedIncidentRepository.findById(id).map(this::convertToDTO));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getIncidentFieldsById(Long id, Collection<String> fields) {
+        return incidentService.getIncidentFieldsById(id, fields)
+                .or(() -> incidentService.findFieldsById(archivedIncidentRepository, ArchivedIncident.class, id, fields));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getIncidentVersion(Long id) {
+        return incidentService.getIncidentVersion(id)
+                .or(() -> archivedIncidentRepository.findVersionById(id));
+    }
+
+    // Ids come from one sequence, so the hot and archived keyset pages merge into a single id-ordered page
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentSummaryDTO> getIncidentSummaries(IncidentFilter filter, String value, Long after, Integer size) {
+        CursorPage<IncidentSummaryDTO> hot = incidentService.getIncidentSummaries(filter, value, after, size);
+        int pageSize = incidentService.pageSize(size);
+        return merge(hot.getItems(), find(filter, value, after, pageSize, IncidentSummaryDTO.class), pageSize, IncidentSummaryDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentDTO> getIncidentDetails(IncidentFilter filter, String value, Long after, Integer size) {
+        CursorPage<IncidentDTO> hot = incidentService.getIncidentDetails(filter, value, after, size);
+        int pageSize = incidentService.pageSize(size);
+        List<IncidentDTO> archived = find(filter, value, after, pageSize, ArchivedIncident.class).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return merge(hot.getItems(), archived, pageSize, IncidentDTO::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getIncidentFields(IncidentFilter filter, String value, Long after, Integer size,
+                                                             Collection<String> fields) {
+        CursorPage<Map<String, Object>> hot = incidentService.getIncidentFields(filter, value, after, size, fields);
+        int pageSize = incidentService.pageSize(size);
+        List<Map<String, Object>> archived = incidentService.findFields(archivedIncidentRepository, ArchivedIncident.class,
+                filter, value, after, pageSize, fields);
+        return merge(hot.getItems(), archived, pageSize, row -> (Long) row.get("id"));
+    }
+
+    private <T> CursorPage<T> merge(List<T> hot, List<T> archived, int pageSize, Function<T, Long> id) {
+        if (archived.isEmpty()) {
+            return new CursorPage<>(hot, hot.size() == pageSize ? id.apply(hot.get(hot.size() - 1)) : null);
+        }
+        List<T> items = new ArrayList<>(hot.size() + archived.size());
+        items.addAll(hot);
+        items.addAll(archived);
+        items.sort(Comparator.comparing(id));
+        if (items.size() > pageSize) {
+            items = new ArrayList<>(items.subList(0, pageSize));
+        }
+        Long nextCursor = items.size() == pageSize ? id.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    private <T> List<T> find(IncidentFilter filter, String value, Long after, int pageSize, Class<T> type) {
+        Long cursor = after != null ? after : 0L;
+        Limit limit = Limit.of(pageSize);
+        return switch (filter) {
+            case ALL -> archivedIncidentRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit, type);
+            case STATUS -> archivedIncidentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(IncidentStatus.from(value), cursor, limit, type);
+            case PRIORITY -> archivedIncidentRepository.findByPriorityAndIdGreaterThanOrderByIdAsc(IncidentPriority.from(value), cursor, limit, type);
+            case REPORTED_BY -> archivedIncidentRepository.findByReportedByAndIdGreaterThanOrderByIdAsc(value, cursor, limit, type);
+            case ASSIGNED_TO -> archivedIncidentRepository.findByAssignedToAndIdGreaterThanOrderByIdAsc(value, cursor, limit, type);
+        };
+    }
+
+    private IncidentDTO convertToDTO(ArchivedIncident incident) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setId(incident.getId());
+        dto.setVersion(incident.getVersion());
+        dto.setTitle(incident.getTitle());
+        dto.setDescription(incident.getDescription());
+        dto.setReportedBy(incident.getReportedBy());
+        dto.setReportedAt(incident.getReportedAt());
+        dto.setStatus(incident.getStatus());
+        dto.setPriority(incident.getPriority());
+        dto.setCategory(incident.getCategory());
+        dto.setAssignedTo(incident.getAssignedTo());
+        dto.setResolution(incident.getResolution());
+        dto.setResolvedAt(incident.getResolvedAt());
+        dto.setComments(new ArrayList<>(incident.getComments()));
+        dto.setAttachments(new ArrayList<>(incident.getAttachments()));
+        return dto;
+    }
+}
@@ -0,0 +1,101 @@
+package poli.bsk.incidents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import poli.bsk.incidents.dto.IncidentChangeDTO;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.IncidentStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Objects;
+
+@Component
+public class IncidentChangeStream {
+    private static final String RESYNC = "RESYNC";
+
+    private final Sinks.Many<ChangeEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final int subscriberBufferSize;
+    private final Duration heartbeatInterval;
+    private final Duration maxConnectionAge;
+
+    @Autowired
+    public IncidentChangeStream(@Value("${app.incidents.changes.subscriber-buffer-size:256}") int subscriberBufferSize,
+                                @Value("${app.incidents.changes.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                @Value("${app.incidents.changes.max-connection-age:30m}") Duration maxConnectionAge) {
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.heartbeatInterval = heartbeatInterval;
+        this.maxConnectionAge = maxConnectionAge;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        IncidentSummaryDTO current = event.getIncident() != null ? toSummary(event.getIncident()) : null;
+        sink.tryEmitNext(new ChangeEvent(event.getPrevious(),
+                new IncidentChangeDTO(event.getType().name(), event.getIncidentId(), current)));
+    }
+
+    public Flux<ServerSentEvent<IncidentChangeDTO>> subscribe(String assignedTo, IncidentStatus status) {
+        Flux<ServerSentEvent<IncidentChangeDTO>> changes = sink.asFlux()
+                .filter(change -> change.matches(assignedTo, status))
+                .onBackpressureBuffer(subscriberBufferSize)
+                .map(change -> ServerSentEvent.builder(change.delta)
+                        .id(String.valueOf(change.delta.getIncidentId()))
+                        .event(change.delta.getType())
+                        .build())
+                .onErrorResume(error -> Flux.just(ServerSentEvent.<IncidentChangeDTO>builder()
+                        .event(RESYNC)
+                        .build()));
+        // The first heartbeat goes out at once: the response headers are only sent with the first event, and the
+        // client cannot tell it is subscribed until then
+        Flux<ServerSentEvent<IncidentChangeDTO>> heartbeats = Flux.interval(Duration.ZERO, heartbeatInterval)
+                .map(tick -> ServerSentEvent.<IncidentChangeDTO>builder().comment("heartbeat").build());
+        // Spring MVC streams SSE with no async timeout (-1), so spring.mvc.async.request-timeout does not apply here;
+        // the stream closes itself after maxConnectionAge and the client reconnects and reloads
+        return Flux.merge(changes, heartbeats)
+                .takeUntil(event -> RESYNC.equals(event.event()))
+                .take(maxConnectionAge);
+    }
+
+    private IncidentSummaryDTO toSummary(IncidentDTO incident) {
+        return new IncidentSummaryDTO(
+                incident.getId(),
+                incident.getTitle(),
+                incident.getDescription(),
+                incident.getReportedBy(),
+                incident.getReportedAt(),
+                incident.getStatus(),
+                incident.getPriority(),
+                incident.getCategory(),
+                incident.getAssignedTo(),
+                incident.getResolvedAt()
+        );
+    }
+
+    private static class ChangeEvent {
+        private final IncidentSummaryDTO previous;
+        private final IncidentChangeDTO delta;
+
+        ChangeEvent(IncidentSummaryDTO previous, IncidentChangeDTO delta) {
+            this.previous = previous;
+            this.delta = delta;
+        }
+
+        boolean matches(String assignedTo, IncidentStatus status) {
+            return matches(previous, assignedTo, status) || matches(delta.getIncident(), assignedTo, status);
+        }
+
+        private static boolean matches(IncidentSummaryDTO incident, String assignedTo, IncidentStatus status) {
+            if (incident == null) {
+                return false;
+            }
+            return (assignedTo == null || Objects.equals(assignedTo, incident.getAssignedTo()))
+                    && (status == null || status == incident.getStatus());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package poli.bsk.incidents.service;
+
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+
+public class IncidentChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        ARCHIVED
+    }
+
+    private final Type type;
+    private final Long incidentId;
+    private final IncidentSummaryDTO previous;
+    private final IncidentDTO incident;
+
+    public IncidentChangedEvent(Type type, Long incidentId, IncidentSummaryDTO previous, IncidentDTO incident) {
+        this.type = type;
+        this.incidentId = incidentId;
+        this.previous = previous;
+        this.incident = incident;
+    }
+
+    public Type getType() { return type; }
+    public Long getIncidentId() { return incidentId; }
+    public IncidentSummaryDTO getPrevious() { return previous; }
+    public IncidentDTO getIncident() { return incident; }
+}
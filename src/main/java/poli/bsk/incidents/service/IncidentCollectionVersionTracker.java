@@ -0,0 +1,39 @@
+package poli.bsk.incidents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+// Bumps the collection version once per transaction that changed incidents, right before it commits, so the
+// counter row stays locked only for the commit and a batch of changes costs a single update
+@Component
+public class IncidentCollectionVersionTracker {
+    private final IncidentRepository incidentRepository;
+
+    @Autowired
+    public IncidentCollectionVersionTracker(IncidentRepository incidentRepository) {
+        this.incidentRepository = incidentRepository;
+    }
+
+    // Only publishers that run in a transaction exist; the synchronization is suspended with it, so an inner
+    // REQUIRES_NEW transaction registers and bumps on its own
+    @EventListener
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof IncrementBeforeCommit) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new IncrementBeforeCommit());
+    }
+
+    private final class IncrementBeforeCommit implements TransactionSynchronization {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            incidentRepository.incrementCollectionVersion();
+        }
+    }
+}
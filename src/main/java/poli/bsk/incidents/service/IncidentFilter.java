@@ -0,0 +1,9 @@
+package poli.bsk.incidents.service;
+
+public enum IncidentFilter {
+    ALL,
+    STATUS,
+    PRIORITY,
+    REPORTED_BY,
+    ASSIGNED_TO
+}
@@ -0,0 +1,269 @@
+package poli.bsk.incidents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.InboxItemDTO;
+import poli.bsk.incidents.dto.InboxPage;
+import poli.bsk.incidents.dto.InboxVerificationDTO;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Service
+public class IncidentInboxService {
+    private static final Set<IncidentStatus> ACTIVE_STATUSES = EnumSet.of(IncidentStatus.OPEN, IncidentStatus.IN_PROGRESS);
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final IncidentRepository incidentRepository;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final Map<Long, InboxEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, UserInbox> inboxes = new ConcurrentHashMap<>();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public IncidentInboxService(IncidentRepository incidentRepository,
+                                @Value("${app.incidents.page.default-size:50}") int defaultPageSize,
+                                @Value("${app.incidents.page.max-size:500}") int maxPageSize) {
+        this.incidentRepository = incidentRepository;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // Loaded under the write lock: changes committed meanwhile wait and are then applied on top of the snapshot
+        rebuildLock.writeLock().lock();
+        try {
+            Map<Long, InboxEntry> database = loadFromDatabase();
+            Map<String, Map<Long, Instant>> unread = new HashMap<>();
+            inboxes.forEach((user, inbox) -> unread.put(user, new HashMap<>(inbox.unread)));
+            entries.clear();
+            inboxes.clear();
+            entries.putAll(database);
+            database.values().forEach(this::index);
+            unread.forEach((user, markers) -> {
+                UserInbox inbox = inboxes.get(user);
+                if (inbox != null) {
+                    markers.forEach((id, changedAt) -> {
+                        if (inbox.contains(entries.get(id))) {
+                            inbox.unread.put(id, changedAt);
+                        }
+                    });
+                }
+            });
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        IncidentDTO incident = event.getIncident();
+        InboxEntry next = incident != null && isActive(incident.getStatus()) ? InboxEntry.of(incident) : null;
+        String actor = currentUser();
+        Instant now = Instant.now();
+        rebuildLock.readLock().lock();
+        try {
+            // compute() serialises concurrent changes to the same incident
+            entries.compute(event.getIncidentId(), (id, current) -> {
+                if (current != null && next != null && !next.isNewerThan(current)) {
+                    return current;
+                }
+                if (current != null) {
+                    unindex(current);
+                }
+                if (next != null) {
+                    index(next);
+                    for (String user : users(next)) {
+                        if (!user.equals(actor)) {
+                            inbox(user).unread.put(id, now);
+                        }
+                    }
+                }
+                if (current != null) {
+                    Set<String> remaining = next != null ? users(next) : Set.of();
+                    for (String user : users(current)) {
+                        if (!remaining.contains(user)) {
+                            inbox(user).unread.remove(id);
+                        }
+                    }
+                }
+                return next;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public InboxPage getInbox(String user, InboxView view, String after, Integer size) {
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        rebuildLock.readLock().lock();
+        try {
+            UserInbox inbox = inboxes.get(user);
+            if (inbox == null) {
+                return new InboxPage(List.of(), null);
+            }
+            NavigableSet<InboxEntry> entries = view == InboxView.ASSIGNED ? inbox.assigned : inbox.reported;
+            if (after != null && !after.isBlank()) {
+                entries = entries.tailSet(InboxEntry.fromCursor(after), false);
+            }
+            List<InboxItemDTO> items = new ArrayList<>(pageSize);
+            InboxEntry last = null;
+            Iterator<InboxEntry> iterator = entries.iterator();
+            while (iterator.hasNext() && items.size() < pageSize) {
+                last = iterator.next();
+                items.add(toItem(last, inbox.unread.get(last.getId())));
+            }
+            return new InboxPage(items, iterator.hasNext() ? last.cursor() : null);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public boolean markRead(String user, Long incidentId) {
+        UserInbox inbox = inboxes.get(user);
+        return inbox != null && inbox.unread.remove(incidentId) != null;
+    }
+
+    public int countUnread(String user) {
+        UserInbox inbox = inboxes.get(user);
+        return inbox != null ? inbox.unread.size() : 0;
+    }
+
+    @Transactional(readOnly = true)
+    public InboxVerificationDTO verify() {
+        Map<Long, InboxEntry> database = loadFromDatabase();
+        rebuildLock.readLock().lock();
+        try {
+            Set<Long> ids = new TreeSet<>(database.keySet());
+            ids.addAll(entries.keySet());
+            List<Long> mismatched = new ArrayList<>();
+            for (Long id : ids) {
+                InboxEntry expected = database.get(id);
+                InboxEntry actual = entries.get(id);
+                if (expected == null || !expected.sameContent(actual) || !isIndexed(actual)) {
+                    mismatched.add(id);
+                }
+            }
+            long indexedEntries = 0;
+            for (UserInbox inbox : inboxes.values()) {
+                indexedEntries += inbox.assigned.size() + inbox.reported.size();
+            }
+            long expectedIndexed = database.values().stream()
+                    .mapToLong(entry -> (entry.getAssignedTo() != null ? 1 : 0) + (entry.getReportedBy() != null ? 1 : 0))
+                    .sum();
+            boolean consistent = mismatched.isEmpty() && indexedEntries == expectedIndexed;
+            return new InboxVerificationDTO(consistent, entries.size(), database.size(),
+                    mismatched.subList(0, Math.min(mismatched.size(), MAX_REPORTED_MISMATCHES)));
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, InboxEntry> loadFromDatabase() {
+        Map<Long, InboxEntry> database = new HashMap<>();
+        try (Stream<InboxEntry> rows = incidentRepository.streamActiveForInbox(ACTIVE_STATUSES).map(InboxEntry::of)) {
+            rows.forEach(entry -> database.put(entry.getId(), entry));
+        }
+        return database;
+    }
+
+    private void index(InboxEntry entry) {
+        if (entry.getAssignedTo() != null) {
+            inbox(entry.getAssignedTo()).assigned.add(entry);
+        }
+        if (entry.getReportedBy() != null) {
+            inbox(entry.getReportedBy()).reported.add(entry);
+        }
+    }
+
+    private void unindex(InboxEntry entry) {
+        if (entry.getAssignedTo() != null) {
+            inbox(entry.getAssignedTo()).assigned.remove(entry);
+        }
+        if (entry.getReportedBy() != null) {
+            inbox(entry.getReportedBy()).reported.remove(entry);
+        }
+    }
+
+    private boolean isIndexed(InboxEntry entry) {
+        UserInbox assignee = entry.getAssignedTo() != null ? inboxes.get(entry.getAssignedTo()) : null;
+        UserInbox reporter = entry.getReportedBy() != null ? inboxes.get(entry.getReportedBy()) : null;
+        return (entry.getAssignedTo() == null || assignee != null && assignee.assigned.contains(entry))
+                && (entry.getReportedBy() == null || reporter != null && reporter.reported.contains(entry));
+    }
+
+    private UserInbox inbox(String user) {
+        return inboxes.computeIfAbsent(user, key -> new UserInbox());
+    }
+
+    private static Set<String> users(InboxEntry entry) {
+        Set<String> users = new HashSet<>(2);
+        if (entry.getAssignedTo() != null) {
+            users.add(entry.getAssignedTo());
+        }
+        if (entry.getReportedBy() != null) {
+            users.add(entry.getReportedBy());
+        }
+        return users;
+    }
+
+    private static boolean isActive(IncidentStatus status) {
+        return status == null || status.isActive();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private static InboxItemDTO toItem(InboxEntry entry, Instant changedAt) {
+        InboxItemDTO item = new InboxItemDTO();
+        item.setId(entry.getId());
+        item.setTitle(entry.getTitle());
+        item.setStatus(entry.getStatus());
+        item.setPriority(entry.getPriority());
+        item.setReportedBy(entry.getReportedBy());
+        item.setAssignedTo(entry.getAssignedTo());
+        item.setReportedAt(entry.getReportedAt());
+        item.setUnread(changedAt != null);
+        item.setChangedAt(changedAt);
+        return item;
+    }
+
+    private static final class UserInbox {
+        private final NavigableSet<InboxEntry> assigned = new ConcurrentSkipListSet<>(InboxEntry.ORDER);
+        private final NavigableSet<InboxEntry> reported = new ConcurrentSkipListSet<>(InboxEntry.ORDER);
+        private final Map<Long, Instant> unread = new ConcurrentHashMap<>();
+
+        private boolean contains(InboxEntry entry) {
+            return entry != null && (assigned.contains(entry) || reported.contains(entry));
+        }
+    }
+}
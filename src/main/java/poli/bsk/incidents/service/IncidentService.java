@@ -1,98 +1,462 @@
 package poli.bsk.incidents.service;
 
+import io.micrometer.observation.annotation.Observed;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.EntityVersion;
+import poli.bsk.incidents.repository.IncidentProjectionRepository;
 import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.repository.IncidentSpecifications;
+import poli.bsk.incidents.dto.BatchItemResultDTO;
+import poli.bsk.incidents.dto.BatchResultDTO;
+import poli.bsk.incidents.dto.CursorPage;
 import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSearchCriteria;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
 
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Observed(name = "incidents.service")
 public class IncidentService {
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "reportedAt", "resolvedAt", "status", "priority", "category", "assignedTo", "reportedBy");
+    // Scalar IncidentDTO properties a list request may select; comments and attachments come with view=full
+    private static final Set<String> PROJECTABLE_FIELDS = Set.of(
+            "id", "version", "title", "description", "reportedBy", "reportedAt", "status", "priority",
+            "category", "assignedTo", "resolution", "resolvedAt");
+    private static final String COMMENTS_ROLE = Incident.class.getName() + ".comments";
+
     private final IncidentRepository incidentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache secondLevelCache;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     @Autowired
-    public IncidentService(IncidentRepository incidentRepository) {
+    public IncidentService(IncidentRepository incidentRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${app.incidents.page.default-size:50}") int defaultPageSize,
+                           @Value("${app.incidents.page.max-size:500}") int maxPageSize) {
         this.incidentRepository = incidentRepository;
+        this.eventPublisher = eventPublisher;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentSummaryDTO> getIncidentSummaries(IncidentFilter filter, String value, Long after, Integer size) {
+        int pageSize = pageSize(size);
+        List<IncidentSummaryDTO> items = find(filter, value, after, pageSize, IncidentSummaryDTO.class);
+        return new CursorPage<>(items, nextCursor(items, pageSize, IncidentSummaryDTO::getId));
     }
 
-    public List<IncidentDTO> getAllIncidents() {
-        return incidentRepository.findAll().stream()
+    @Transactional(readOnly = true)
+    public CursorPage<IncidentDTO> getIncidentDetails(IncidentFilter filter, String value, Long after, Integer size) {
+        int pageSize = pageSize(size);
+        List<IncidentDTO> items = find(filter, value, after, pageSize, Incident.class).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor(items, pageSize, IncidentDTO::getId));
+    }
+
+    // Only the requested columns are selected, so table views skip descriptions, comments and attachments
+    @Transactional(readOnly = true)
+    public CursorPage<Map<String, Object>> getIncidentFields(IncidentFilter filter, String value, Long after, Integer size,
+                                                             Collection<String> fields) {
+        int pageSize = pageSize(size);
+        List<Map<String, Object>> items = findFields(incidentRepository, Incident.class, filter, value, after, pageSize, fields);
+        return new CursorPage<>(items, nextCursor(items, pageSize, row -> (Long) row.get("id")));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamIncidentSummaries(IncidentFilter filter, String value, Consumer<IncidentSummaryDTO> consumer) {
+        try (Stream<IncidentSummaryDTO> incidents = stream(filter, value, IncidentSummaryDTO.class)) {
+            incidents.forEach(consumer);
+        }
     }
 
+    @Transactional(readOnly = true)
+    public Page<IncidentSummaryDTO> searchIncidents(IncidentSearchCriteria criteria, Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort incidents by " + order.getProperty());
+            }
+        }
+        return incidentRepository.findAll(IncidentSpecifications.matching(criteria), pageable)
+                .map(this::convertToSummary);
+    }
+
+    @Transactional(readOnly = true)
     public Optional<IncidentDTO> getIncidentById(Long id) {
         return incidentRepository.findById(id)
                 .map(this::convertToDTO);
     }
 
-    public List<IncidentDTO> getIncidentsByStatus(String status) {
-        return incidentRepository.findByStatus(status).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getIncidentFieldsById(Long id, Collection<String> fields) {
+        return findFieldsById(incidentRepository, Incident.class, id, fields);
     }
 
-    public List<IncidentDTO> getIncidentsByPriority(String priority) {
-        return incidentRepository.findByPriority(priority).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Optional<EntityVersion> getIncidentVersion(Long id) {
+        return incidentRepository.findVersionById(id);
     }
 
-    public List<IncidentDTO> getIncidentsByReportedBy(String reportedBy) {
-        return incidentRepository.findByReportedBy(reportedBy).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-    }
-
-    public List<IncidentDTO> getIncidentsByAssignedTo(String assignedTo) {
-        return incidentRepository.findByAssignedTo(assignedTo).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public long getCollectionVersion() {
+        return incidentRepository.findCollectionVersion();
     }
 
+    @Transactional
     public IncidentDTO createIncident(IncidentDTO incidentDTO) {
         Incident incident = convertToEntity(incidentDTO);
-        incident.setReportedAt(Instant.now());
-        incident.setStatus("OPEN");
+        incident.setReportedAt(now());
+        incident.setStatus(IncidentStatus.OPEN);
         Incident saved = incidentRepository.save(incident);
-        return convertToDTO(saved);
+        IncidentDTO created = convertToDTO(saved);
+        eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.CREATED, created.getId(), null, created));
+        return created;
     }
 
+    @Transactional
     public IncidentDTO updateIncident(Long id, IncidentDTO incidentDTO) {
+        return updateIncident(id, incidentDTO, null);
+    }
+
+    @Transactional
+    public IncidentDTO updateIncident(Long id, IncidentDTO incidentDTO, Long expectedVersion) {
         Optional<Incident> existing = incidentRepository.findById(id);
         if (existing.isPresent()) {
             Incident incident = existing.get();
-            if (incidentDTO.getTitle() != null) incident.setTitle(incidentDTO.getTitle());
-            if (incidentDTO.getDescription() != null) incident.setDescription(incidentDTO.getDescription());
-            if (incidentDTO.getPriority() != null) incident.setPriority(incidentDTO.getPriority());
-            if (incidentDTO.getCategory() != null) incident.setCategory(incidentDTO.getCategory());
-            if (incidentDTO.getStatus() != null) incident.setStatus(incidentDTO.getStatus());
-            if (incidentDTO.getAssignedTo() != null) incident.setAssignedTo(incidentDTO.getAssignedTo());
-            if (incidentDTO.getResolution() != null) {
-                incident.setResolution(incidentDTO.getResolution());
-                if ("RESOLVED".equals(incidentDTO.getStatus())) {
-                    incident.setResolvedAt(Instant.now());
+            checkVersion(incident, expectedVersion);
+            IncidentSummaryDTO previous = convertToSummary(incident);
+            applyChanges(incident, incidentDTO);
+            return saveUpdated(incident, previous);
+        }
+        return null;
+    }
+
+    @Transactional
+    public IncidentDTO patchIncident(Long id, IncidentDTO incidentDTO, Long expectedVersion) {
+        Optional<Incident> existing = incidentRepository.findById(id);
+        if (existing.isPresent()) {
+            Incident incident = existing.get();
+            checkVersion(incident, expectedVersion);
+            IncidentSummaryDTO previous = convertToSummary(incident);
+            applyFieldChanges(incident, incidentDTO);
+            return saveUpdated(incident, previous);
+        }
+        return null;
+    }
+
+    @Transactional
+    public IncidentDTO addComment(Long id, String comment, Long expectedVersion) {
+        if (comment == null || comment.isBlank()) {
+            throw new IllegalArgumentException("comment must not be blank");
+        }
+        int updated = expectedVersion != null
+                ? incidentRepository.incrementVersion(id, expectedVersion, now())
+                : incidentRepository.incrementVersion(id, now());
+        if (updated == 0) {
+            if (expectedVersion != null && incidentRepository.existsById(id)) {
+                throw new ObjectOptimisticLockingFailureException(Incident.class, id);
+            }
+            return null;
+        }
+        incidentRepository.insertComment(id, comment);
+        evictComments(id);
+        Incident incident = incidentRepository.findById(id).orElseThrow();
+        IncidentDTO result = convertToDTO(incident);
+        eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, id, convertToSummary(incident), result));
+        return result;
+    }
+
+    @Transactional
+    public BatchResultDTO createIncidents(List<IncidentDTO> incidentDTOs) {
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Incident> incidents = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < incidentDTOs.size(); i++) {
+            IncidentDTO incidentDTO = incidentDTOs.get(i);
+            String error = validateForCreate(incidentDTO);
+            if (error != null) {
+                results.add(new BatchItemResultDTO(i, null, "FAILED", error));
+                continue;
+            }
+            incidents.add(convertToEntity(incidentDTO));
+            indexes.add(i);
+        }
+
+        List<Incident> saved = incidentRepository.saveAll(incidents);
+        for (int i = 0; i < saved.size(); i++) {
+            IncidentDTO created = convertToDTO(saved.get(i));
+            results.add(new BatchItemResultDTO(indexes.get(i), created.getId(), "CREATED", null));
+            eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.CREATED, created.getId(), null, created));
+        }
+        results.sort(Comparator.comparingInt(BatchItemResultDTO::getIndex));
+        return new BatchResultDTO(results);
+    }
+
+    @Transactional
+    public BatchResultDTO updateIncidents(List<IncidentDTO> incidentDTOs) {
+        Map<Long, Long> occurrences = incidentDTOs.stream()
+                .map(IncidentDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        Map<Long, Incident> existing = incidentRepository.findAllById(occurrences.keySet()).stream()
+                .collect(Collectors.toMap(Incident::getId, Function.identity()));
+
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        List<Incident> updated = new ArrayList<>();
+        List<IncidentSummaryDTO> previous = new ArrayList<>();
+        for (int i = 0; i < incidentDTOs.size(); i++) {
+            IncidentDTO incidentDTO = incidentDTOs.get(i);
+            if (incidentDTO.getId() == null) {
+                results.add(new BatchItemResultDTO(i, null, "FAILED", "id is required"));
+                continue;
+            }
+            // Which of two changes to the same incident should win is unclear, so neither is applied
+            if (occurrences.get(incidentDTO.getId()) > 1) {
+                results.add(new BatchItemResultDTO(i, incidentDTO.getId(), "FAILED", "duplicate id in batch"));
+                continue;
+            }
+            Incident incident = existing.get(incidentDTO.getId());
+            if (incident == null) {
+                results.add(new BatchItemResultDTO(i, incidentDTO.getId(), "FAILED", "incident not found"));
+                continue;
+            }
+            if (incidentDTO.getVersion() != null && !incidentDTO.getVersion().equals(incident.getVersion())) {
+                results.add(new BatchItemResultDTO(i, incidentDTO.getId(), "FAILED", "version conflict"));
+                continue;
+            }
+            if (incidentDTO.getTitle() != null && incidentDTO.getTitle().isBlank()) {
+                results.add(new BatchItemResultDTO(i, incidentDTO.getId(), "FAILED", "title must not be blank"));
+                continue;
+            }
+            IncidentSummaryDTO before = convertToSummary(incident);
+            try {
+                applyChanges(incident, incidentDTO);
+            } catch (InvalidStatusTransitionException e) {
+                results.add(new BatchItemResultDTO(i, incidentDTO.getId(), "FAILED", e.getMessage()));
+                continue;
+            }
+            results.add(new BatchItemResultDTO(i, incident.getId(), "UPDATED", null));
+            updated.add(incident);
+            previous.add(before);
+        }
+
+        // Converted before the flush, which empties Hibernate's batch-fetch queue and would load comments and
+        // attachments one incident at a time; the flush then sends the updates as one JDBC batch and assigns the
+        // versions the events carry
+        List<IncidentDTO> changed = updated.stream().map(this::convertToDTO).toList();
+        incidentRepository.flush();
+        for (int i = 0; i < updated.size(); i++) {
+            IncidentDTO incident = changed.get(i);
+            incident.setVersion(updated.get(i).getVersion());
+            eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, incident.getId(), previous.get(i), incident));
+        }
+        return new BatchResultDTO(results);
+    }
+
+    @Transactional
+    public void deleteIncident(Long id) {
+        incidentRepository.findById(id).ifPresent(incident -> {
+            incidentRepository.delete(incident);
+            eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.DELETED, id, convertToSummary(incident), null));
+        });
+    }
+
+    // The native comment insert bypasses the collection cache: evict now for the reload below and again after
+    // completion, in case a concurrent reader cached the pre-commit rows in between
+    private void evictComments(Long id) {
+        secondLevelCache.evictCollectionData(COMMENTS_ROLE, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    secondLevelCache.evictCollectionData(COMMENTS_ROLE, id);
                 }
+            });
+        }
+    }
+
+    private IncidentDTO saveUpdated(Incident incident, IncidentSummaryDTO previous) {
+        Incident updated = incidentRepository.saveAndFlush(incident);
+        IncidentDTO result = convertToDTO(updated);
+        eventPublisher.publishEvent(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, updated.getId(), previous, result));
+        return result;
+    }
+
+    private void checkVersion(Incident incident, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(incident.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Incident.class, incident.getId());
+        }
+    }
+
+    private void applyChanges(Incident incident, IncidentDTO incidentDTO) {
+        applyFieldChanges(incident, incidentDTO);
+        if (incidentDTO.getComments() != null && !incidentDTO.getComments().equals(incident.getComments())) {
+            incident.setComments(incidentDTO.getComments());
+        }
+    }
+
+    private void applyFieldChanges(Incident incident, IncidentDTO incidentDTO) {
+        if (incidentDTO.getStatus() != null) {
+            requireTransition(incident.getStatus(), incidentDTO.getStatus());
+        }
+        if (incidentDTO.getTitle() != null) incident.setTitle(incidentDTO.getTitle());
+        if (incidentDTO.getDescription() != null) incident.setDescription(incidentDTO.getDescription());
+        if (incidentDTO.getPriority() != null) incident.setPriority(incidentDTO.getPriority());
+        if (incidentDTO.getCategory() != null) incident.setCategory(incidentDTO.getCategory());
+        if (incidentDTO.getStatus() != null) incident.setStatus(incidentDTO.getStatus());
+        if (incidentDTO.getAssignedTo() != null) incident.setAssignedTo(incidentDTO.getAssignedTo());
+        if (incidentDTO.getResolution() != null) {
+            incident.setResolution(incidentDTO.getResolution());
+            if (incidentDTO.getStatus() == IncidentStatus.RESOLVED) {
+                incident.setResolvedAt(now());
             }
-            if (incidentDTO.getComments() != null) incident.setComments(incidentDTO.getComments());
-            Incident updated = incidentRepository.save(incident);
-            return convertToDTO(updated);
+        }
+    }
+
+    private void requireTransition(IncidentStatus current, IncidentStatus next) {
+        if (current != null && !current.canTransitionTo(next)) {
+            throw new InvalidStatusTransitionException(current, next);
+        }
+    }
+
+    private String validateForCreate(IncidentDTO incidentDTO) {
+        if (incidentDTO == null) {
+            return "incident is required";
+        }
+        if (incidentDTO.getTitle() == null || incidentDTO.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (incidentDTO.getReportedBy() == null || incidentDTO.getReportedBy().isBlank()) {
+            return "reportedBy is required";
         }
         return null;
     }
 
-    public void deleteIncident(Long id) {
-        incidentRepository.deleteById(id);
+    private <T> List<T> find(IncidentFilter filter, String value, Long after, int pageSize, Class<T> type) {
+        Long cursor = after != null ? after : 0L;
+        Limit limit = Limit.of(pageSize);
+        return switch (filter) {
+            case ALL -> incidentRepository.findByIdGreaterThanOrderByIdAsc(cursor, limit, type);
+            case STATUS -> incidentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(IncidentStatus.from(value), cursor, limit, type);
+            case PRIORITY -> incidentRepository.findByPriorityAndIdGreaterThanOrderByIdAsc(IncidentPriority.from(value), cursor, limit, type);
+            case REPORTED_BY -> incidentRepository.findByReportedByAndIdGreaterThanOrderByIdAsc(value, cursor, limit, type);
+            case ASSIGNED_TO -> incidentRepository.findByAssignedToAndIdGreaterThanOrderByIdAsc(value, cursor, limit, type);
+        };
+    }
+
+    List<Map<String, Object>> findFields(IncidentProjectionRepository repository, Class<?> entityType, IncidentFilter filter,
+                                         String value, Long after, int pageSize, Collection<String> fields) {
+        Long cursor = after != null ? after : 0L;
+        List<String> selected = projection(fields);
+        return switch (filter) {
+            case ALL -> repository.findFieldsByIdGreaterThan(entityType, selected, null, null, cursor, pageSize);
+            case STATUS -> repository.findFieldsByIdGreaterThan(entityType, selected, "status", IncidentStatus.from(value), cursor, pageSize);
+            case PRIORITY -> repository.findFieldsByIdGreaterThan(entityType, selected, "priority", IncidentPriority.from(value), cursor, pageSize);
+            case REPORTED_BY -> repository.findFieldsByIdGreaterThan(entityType, selected, "reportedBy", value, cursor, pageSize);
+            case ASSIGNED_TO -> repository.findFieldsByIdGreaterThan(entityType, selected, "assignedTo", value, cursor, pageSize);
+        };
+    }
+
+    Optional<Map<String, Object>> findFieldsById(IncidentProjectionRepository repository, Class<?> entityType,
+                                                 Long id, Collection<String> fields) {
+        return repository.findFieldsByIdGreaterThan(entityType, projection(fields), "id", id, 0L, 1).stream().findFirst();
+    }
+
+    // The id is always selected because it is the page cursor
+    private List<String> projection(Collection<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!PROJECTABLE_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Cannot select incident field " + name);
+            }
+            selected.add(name);
+        }
+        return new ArrayList<>(selected);
+    }
+
+    private <T> Stream<T> stream(IncidentFilter filter, String value, Class<T> type) {
+        return switch (filter) {
+            case ALL -> incidentRepository.streamAllByOrderByIdAsc(type);
+            case STATUS -> incidentRepository.streamByStatusOrderByIdAsc(IncidentStatus.from(value), type);
+            case PRIORITY -> incidentRepository.streamByPriorityOrderByIdAsc(IncidentPriority.from(value), type);
+            case REPORTED_BY -> incidentRepository.streamByReportedByOrderByIdAsc(value, type);
+            case ASSIGNED_TO -> incidentRepository.streamByAssignedToOrderByIdAsc(value, type);
+        };
+    }
+
+    int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
     }
 
-    private IncidentDTO convertToDTO(Incident incident) {
+    private <T> Long nextCursor(List<T> items, int pageSize, Function<T, Long> id) {
+        return items.size() == pageSize ? id.apply(items.get(items.size() - 1)) : null;
+    }
+
+    IncidentSummaryDTO convertToSummary(Incident incident) {
+        return new IncidentSummaryDTO(
+                incident.getId(),
+                incident.getTitle(),
+                incident.getDescription(),
+                incident.getReportedBy(),
+                incident.getReportedAt(),
+                incident.getStatus(),
+                incident.getPriority(),
+                incident.getCategory(),
+                incident.getAssignedTo(),
+                incident.getResolvedAt()
+        );
+    }
+
+    IncidentDTO convertToDTO(Incident incident) {
         IncidentDTO dto = new IncidentDTO();
         dto.setId(incident.getId());
+        dto.setVersion(incident.getVersion());
         dto.setTitle(incident.getTitle());
         dto.setDescription(incident.getDescription());
         dto.setReportedBy(incident.getReportedBy());
@@ -103,19 +467,28 @@ public class IncidentService {
         dto.setAssignedTo(incident.getAssignedTo());
         dto.setResolution(incident.getResolution());
         dto.setResolvedAt(incident.getResolvedAt());
-        dto.setComments(incident.getComments());
-        dto.setAttachments(incident.getAttachments());
+        dto.setComments(copyOf(incident.getComments()));
+        dto.setAttachments(copyOf(incident.getAttachments()));
         return dto;
     }
 
-    private Incident convertToEntity(IncidentDTO dto) {
+    // Columns keep microseconds; truncating keeps entities in the second-level cache identical to their rows
+    static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private List<String> copyOf(List<String> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
+    Incident convertToEntity(IncidentDTO dto) {
         return new Incident(
                 dto.getTitle(),
                 dto.getDescription(),
                 dto.getReportedBy(),
-                Instant.now(),
-                "OPEN",
-                dto.getPriority() != null ? dto.getPriority() : "MEDIUM",
+                now(),
+                IncidentStatus.OPEN,
+                dto.getPriority() != null ? dto.getPriority() : IncidentPriority.MEDIUM,
                 dto.getCategory(),
                 null,
                 null,
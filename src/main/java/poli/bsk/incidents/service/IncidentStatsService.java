@@ -0,0 +1,236 @@
+package poli.bsk.incidents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentStatsDTO;
+import poli.bsk.incidents.dto.IncidentStatsVerificationDTO;
+import poli.bsk.incidents.repository.IncidentGroupCount;
+import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.repository.IncidentResolutionTotals;
+import poli.bsk.incidents.repository.IncidentStatsRow;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Service
+public class IncidentStatsService {
+    private static final String NONE = "NONE";
+
+    private final IncidentRepository incidentRepository;
+    private final Map<Long, StatsEntry> entries = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+    private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byPriority = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byCategory = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> byAssignee = new ConcurrentHashMap<>();
+    private final LongAdder resolvedCount = new LongAdder();
+    private final LongAdder resolveSeconds = new LongAdder();
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public IncidentStatsService(IncidentRepository incidentRepository) {
+        this.incidentRepository = incidentRepository;
+    }
+
+    // Loads under the write lock: events for changes the load already saw are held back until it finishes and are
+    // then dropped by the version check, so nothing is counted twice
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            entries.clear();
+            total.reset();
+            byStatus.clear();
+            byPriority.clear();
+            byCategory.clear();
+            byAssignee.clear();
+            resolvedCount.reset();
+            resolveSeconds.reset();
+            try (Stream<StatsEntry> rows = incidentRepository.streamAllForStats().map(StatsEntry::of)) {
+                rows.forEach(entry -> {
+                    entries.put(entry.id, entry);
+                    apply(entry, 1);
+                });
+            }
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncidentChanged(IncidentChangedEvent event) {
+        IncidentDTO incident = event.getIncident();
+        StatsEntry next = incident != null ? StatsEntry.of(incident) : null;
+        rebuildLock.readLock().lock();
+        try {
+            // Counters move by the difference to the entry held for the incident, not to the event's previous state,
+            // so a repeated or out-of-order event cannot skew them; compute() serialises changes to one incident
+            entries.compute(event.getIncidentId(), (id, current) -> {
+                if (current != null && next != null && !next.isNewerThan(current)) {
+                    return current;
+                }
+                if (current != null) {
+                    apply(current, -1);
+                }
+                if (next != null) {
+                    apply(next, 1);
+                }
+                return next;
+            });
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    public IncidentStatsDTO getStats() {
+        rebuildLock.readLock().lock();
+        try {
+            IncidentStatsDTO stats = new IncidentStatsDTO();
+            stats.setTotal(total.sum());
+            stats.setByStatus(snapshot(byStatus));
+            stats.setByPriority(snapshot(byPriority));
+            stats.setByCategory(snapshot(byCategory));
+            stats.setByAssignee(snapshot(byAssignee));
+            long resolved = resolvedCount.sum();
+            stats.setResolvedCount(resolved);
+            stats.setMeanTimeToResolveSeconds(resolved > 0 ? (double) resolveSeconds.sum() / resolved : null);
+            return stats;
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public IncidentStatsDTO getStatsFromDatabase() {
+        IncidentStatsDTO stats = new IncidentStatsDTO();
+        stats.setTotal(incidentRepository.count());
+        stats.setByStatus(toMap(incidentRepository.countGroupedByStatus()));
+        stats.setByPriority(toMap(incidentRepository.countGroupedByPriority()));
+        stats.setByCategory(toMap(incidentRepository.countGroupedByCategory()));
+        stats.setByAssignee(toMap(incidentRepository.countGroupedByAssignee()));
+        IncidentResolutionTotals resolution = incidentRepository.sumResolutionTimes();
+        long resolved = resolution.getResolved() != null ? resolution.getResolved() : 0;
+        stats.setResolvedCount(resolved);
+        stats.setMeanTimeToResolveSeconds(resolved > 0 && resolution.getTotalSeconds() != null
+                ? (double) resolution.getTotalSeconds() / resolved
+                : null);
+        return stats;
+    }
+
+    @Transactional(readOnly = true)
+    public IncidentStatsVerificationDTO verify() {
+        IncidentStatsDTO counters = getStats();
+        IncidentStatsDTO database = getStatsFromDatabase();
+        boolean consistent = counters.getTotal() == database.getTotal()
+                && counters.getByStatus().equals(database.getByStatus())
+                && counters.getByPriority().equals(database.getByPriority())
+                && counters.getByCategory().equals(database.getByCategory())
+                && counters.getByAssignee().equals(database.getByAssignee())
+                && counters.getResolvedCount() == database.getResolvedCount()
+                && sameMean(counters.getMeanTimeToResolveSeconds(), database.getMeanTimeToResolveSeconds());
+        return new IncidentStatsVerificationDTO(consistent, counters, database);
+    }
+
+    private void apply(StatsEntry entry, int delta) {
+        total.add(delta);
+        increment(byStatus, entry.status, delta);
+        increment(byPriority, entry.priority, delta);
+        increment(byCategory, entry.category, delta);
+        increment(byAssignee, entry.assignedTo, delta);
+        if (entry.resolveSeconds != null) {
+            resolvedCount.add(delta);
+            resolveSeconds.add(delta * entry.resolveSeconds);
+        }
+    }
+
+    private static void increment(Map<String, LongAdder> counters, Object value, int delta) {
+        counters.computeIfAbsent(key(value), k -> new LongAdder()).add(delta);
+    }
+
+    private static Map<String, Long> snapshot(Map<String, LongAdder> counters) {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.sum();
+            if (value != 0) {
+                values.put(key, value);
+            }
+        });
+        return values;
+    }
+
+    private static Map<String, Long> toMap(List<IncidentGroupCount> groups) {
+        Map<String, Long> values = new TreeMap<>();
+        for (IncidentGroupCount group : groups) {
+            values.merge(key(group.getName()), group.getTotal(), Long::sum);
+        }
+        return values;
+    }
+
+    // Enum-backed columns are keyed by constant name, free-text ones by their value
+    private static String key(Object value) {
+        if (value == null) {
+            return NONE;
+        }
+        return value instanceof Enum<?> constant ? constant.name() : value.toString();
+    }
+
+    private static boolean sameMean(Double counters, Double database) {
+        if (counters == null || database == null) {
+            return Objects.equals(counters, database);
+        }
+        return Math.abs(counters - database) < 1.0;
+    }
+
+    // What one incident contributes to the counters
+    private static final class StatsEntry {
+        private final Long id;
+        private final Long version;
+        private final Object status;
+        private final Object priority;
+        private final Object category;
+        private final String assignedTo;
+        private final Long resolveSeconds;
+
+        private StatsEntry(Long id, Long version, Object status, Object priority, Object category, String assignedTo,
+                           Instant reportedAt, Instant resolvedAt) {
+            this.id = id;
+            this.version = version;
+            this.status = status;
+            this.priority = priority;
+            this.category = category;
+            this.assignedTo = assignedTo;
+            this.resolveSeconds = reportedAt != null && resolvedAt != null
+                    ? Duration.between(reportedAt, resolvedAt).toSeconds()
+                    : null;
+        }
+
+        static StatsEntry of(IncidentDTO incident) {
+            return new StatsEntry(incident.getId(), incident.getVersion(), incident.getStatus(), incident.getPriority(),
+                    incident.getCategory(), incident.getAssignedTo(), incident.getReportedAt(), incident.getResolvedAt());
+        }
+
+        static StatsEntry of(IncidentStatsRow row) {
+            return new StatsEntry(row.getId(), row.getVersion(), row.getStatus(), row.getPriority(),
+                    row.getCategory(), row.getAssignedTo(), row.getReportedAt(), row.getResolvedAt());
+        }
+
+        boolean isNewerThan(StatsEntry other) {
+            return version == null || other.version == null || version > other.version;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package poli.bsk.incidents.service;
+
+import poli.bsk.incidents.model.IncidentStatus;
+
+public class InvalidStatusTransitionException extends RuntimeException {
+    private final IncidentStatus from;
+    private final IncidentStatus to;
+
+    public InvalidStatusTransitionException(IncidentStatus from, IncidentStatus to) {
+        super("cannot change status from " + from + " to " + to);
+        this.from = from;
+        this.to = to;
+    }
+
+    public IncidentStatus getFrom() { return from; }
+    public IncidentStatus getTo() { return to; }
+}
@@ -0,0 +1,71 @@
+package poli.bsk.incidents.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import poli.bsk.incidents.model.User;
+import poli.bsk.incidents.repository.UserRepository;
+import poli.bsk.incidents.util.Authorities;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+public class PrincipalCache {
+    private static final Logger log = LoggerFactory.getLogger(PrincipalCache.class);
+
+    private final UserRepository userRepository;
+    private final Cache<String, List<GrantedAuthority>> authorities;
+
+    @Autowired
+    public PrincipalCache(UserRepository userRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.authorities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, authorities, "principals");
+    }
+
+    // Tokens without an email claim cannot be matched to a user and get the default role, uncached
+    public List<GrantedAuthority> getAuthorities(String email) {
+        if (email == null) {
+            return List.of(Authorities.role("USER"));
+        }
+        return authorities.get(email, this::loadAuthorities);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            authorities.invalidate(email);
+        }
+    }
+
+    private List<GrantedAuthority> loadAuthorities(String email) {
+        Optional<User> userOptional = userRepository.findByEmail(email);
+        if (userOptional.isPresent()) {
+            String role = userOptional.get().getRole();
+
+            if (role != null && !role.isEmpty()) {
+                log.debug("Loaded role {} for {}", role, email);
+                return List.of(Authorities.role(role));
+            }
+            log.debug("User {} has no role, assigning USER", email);
+        } else {
+            log.debug("User {} not found, assigning USER", email);
+        }
+        return List.of(Authorities.role("USER"));
+    }
+}
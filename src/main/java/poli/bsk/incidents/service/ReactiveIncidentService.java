@@ -0,0 +1,112 @@
+package poli.bsk.incidents.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.CodedEnum;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentRow;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.ReactiveIncidentRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Profile("reactive")
+public class ReactiveIncidentService {
+    private final ReactiveIncidentRepository incidentRepository;
+    private final DatabaseClient databaseClient;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    @Autowired
+    public ReactiveIncidentService(ReactiveIncidentRepository incidentRepository,
+                                   DatabaseClient databaseClient,
+                                   @Value("${app.incidents.page.default-size:50}") int defaultPageSize,
+                                   @Value("${app.incidents.page.max-size:500}") int maxPageSize) {
+        this.incidentRepository = incidentRepository;
+        this.databaseClient = databaseClient;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    public Flux<IncidentDTO> getIncidents(IncidentFilter filter, String value, Long after, Integer size) {
+        return find(filter, value, after != null ? after : 0L, Limit.of(pageSize(size)))
+                .collectList()
+                .flatMapMany(this::withCollections);
+    }
+
+    public Mono<IncidentDTO> getIncidentById(Long id) {
+        return incidentRepository.findById(id)
+                .flatMap(row -> withCollections(List.of(row)).next());
+    }
+
+    private Flux<IncidentRow> find(IncidentFilter filter, String value, Long after, Limit limit) {
+        return switch (filter) {
+            case ALL -> incidentRepository.findByIdGreaterThanOrderByIdAsc(after, limit);
+            case STATUS -> incidentRepository.findByStatusAndIdGreaterThanOrderByIdAsc(IncidentStatus.from(value).getCode(), after, limit);
+            case PRIORITY -> incidentRepository.findByPriorityAndIdGreaterThanOrderByIdAsc(IncidentPriority.from(value).getCode(), after, limit);
+            case REPORTED_BY -> incidentRepository.findByReportedByAndIdGreaterThanOrderByIdAsc(value, after, limit);
+            case ASSIGNED_TO -> incidentRepository.findByAssignedToAndIdGreaterThanOrderByIdAsc(value, after, limit);
+        };
+    }
+
+    private Flux<IncidentDTO> withCollections(List<IncidentRow> rows) {
+        if (rows.isEmpty()) {
+            return Flux.empty();
+        }
+        List<Long> ids = rows.stream().map(IncidentRow::getId).toList();
+        return Mono.zip(
+                        loadCollection("select incident_id, comments as element_value from incident_comments where incident_id in (:ids)", ids),
+                        loadCollection("select incident_id, attachments as element_value from incident_attachments where incident_id in (:ids)", ids))
+                .flatMapMany(collections -> Flux.fromIterable(rows)
+                        .map(row -> convertToDTO(row,
+                                collections.getT1().getOrDefault(row.getId(), new ArrayList<>()),
+                                collections.getT2().getOrDefault(row.getId(), new ArrayList<>()))));
+    }
+
+    private Mono<Map<Long, List<String>>> loadCollection(String sql, List<Long> ids) {
+        return databaseClient.sql(sql)
+                .bind("ids", ids)
+                .map((row, metadata) -> Map.entry(row.get("incident_id", Long.class), row.get("element_value", String.class)))
+                .all()
+                .collect(HashMap::new, (values, entry) ->
+                        values.computeIfAbsent(entry.getKey(), id -> new ArrayList<>()).add(entry.getValue()));
+    }
+
+    private int pageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    private IncidentDTO convertToDTO(IncidentRow row, List<String> comments, List<String> attachments) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setId(row.getId());
+        dto.setVersion(row.getVersion());
+        dto.setTitle(row.getTitle());
+        dto.setDescription(row.getDescription());
+        dto.setReportedBy(row.getReportedBy());
+        dto.setReportedAt(row.getReportedAt());
+        dto.setStatus(CodedEnum.fromCode(IncidentStatus.class, row.getStatus()));
+        dto.setPriority(CodedEnum.fromCode(IncidentPriority.class, row.getPriority()));
+        dto.setCategory(CodedEnum.fromCode(IncidentCategory.class, row.getCategory()));
+        dto.setAssignedTo(row.getAssignedTo());
+        dto.setResolution(row.getResolution());
+        dto.setResolvedAt(row.getResolvedAt());
+        dto.setComments(comments);
+        dto.setAttachments(attachments);
+        return dto;
+    }
+}
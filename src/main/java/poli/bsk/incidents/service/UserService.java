@@ -1,8 +1,12 @@
 package poli.bsk.incidents.service;
 
+import io.micrometer.observation.annotation.Observed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import poli.bsk.incidents.model.User;
+import poli.bsk.incidents.repository.EntityVersion;
 import poli.bsk.incidents.repository.UserRepository;
 import poli.bsk.incidents.dto.UserDTO;
 
@@ -11,12 +15,17 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Observed(name = "incidents.service")
 public class UserService {
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     public List<UserDTO> getAllUsers() {
@@ -30,6 +39,10 @@ public class UserService {
                 .map(this::convertToDTO);
     }
 
+    public Optional<EntityVersion> getUserVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
     public Optional<UserDTO> getUserByEmail(String email) {
         return userRepository.findByEmail(email)
                 .map(this::convertToDTO);
@@ -44,6 +57,7 @@ public class UserService {
     public UserDTO createUser(UserDTO userDTO) {
         User user = new User(userDTO.getEmail(), userDTO.getName(), userDTO.getRole());
         User saved = userRepository.save(user);
+        principalCache.invalidate(saved.getEmail());
         return convertToDTO(saved);
     }
 
@@ -54,6 +68,7 @@ public class UserService {
             if (userDTO.getName() != null) user.setName(userDTO.getName());
             if (userDTO.getRole() != null) user.setRole(userDTO.getRole());
             User updated = userRepository.save(user);
+            principalCache.invalidate(updated.getEmail());
             return convertToDTO(updated);
         }
         return null;
@@ -70,21 +85,24 @@ public class UserService {
             }
             if (userDTO.getRole() != null && !userDTO.getRole().isEmpty()) {
                 user.setRole(userDTO.getRole());
-                System.out.println("[UserService.syncUser] ✓ Updated user " + userDTO.getEmail() + " role to: " + userDTO.getRole());
+                log.info("Sync updated role of {} to {}", userDTO.getEmail(), userDTO.getRole());
             }
         } else {
             String role = (userDTO.getRole() != null && !userDTO.getRole().isEmpty()) ? userDTO.getRole() : "User";
             user = new User(userDTO.getEmail(), userDTO.getName(), role);
-            System.out.println("[UserService.syncUser] ✓ Created user " + userDTO.getEmail() + " with role: " + role);
+            log.info("Sync created user {} with role {}", userDTO.getEmail(), role);
         }
 
         User saved = userRepository.save(user);
-        System.out.println("[UserService.syncUser] ✓ Saved user to DB: " + saved.getEmail() + " with role: " + saved.getRole());
+        principalCache.invalidate(saved.getEmail());
         return convertToDTO(saved);
     }
 
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            principalCache.invalidate(user.getEmail());
+        });
     }
 
     private UserDTO convertToDTO(User user) {
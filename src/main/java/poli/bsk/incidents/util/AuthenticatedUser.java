@@ -0,0 +1,59 @@
+package poli.bsk.incidents.util;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public final class AuthenticatedUser implements Principal, Serializable {
+    private final String email;
+    private final String displayName;
+    private final String subject;
+    private final Set<String> roles;
+    private final List<GrantedAuthority> authorities;
+    private final Set<String> authorityNames;
+
+    public AuthenticatedUser(String email, String displayName, String subject, Set<String> roles, List<GrantedAuthority> authorities) {
+        this.email = email;
+        this.displayName = displayName;
+        this.subject = subject;
+        this.roles = roles;
+        this.authorities = List.copyOf(authorities);
+        this.authorityNames = authorityNames(this.authorities);
+    }
+
+    @Override
+    public String getName() { return email; }
+    public String getEmail() { return email; }
+    public String getDisplayName() { return displayName; }
+    public String getSubject() { return subject; }
+    public Set<String> getRoles() { return roles; }
+    public List<GrantedAuthority> getAuthorities() { return authorities; }
+
+    public boolean hasAuthority(String authority) {
+        return authorityNames.contains(authority);
+    }
+
+    public boolean hasRole(String role) {
+        return authorityNames.contains(Authorities.roleName(role));
+    }
+
+    @Override
+    public String toString() {
+        return email;
+    }
+
+    private static Set<String> authorityNames(List<GrantedAuthority> authorities) {
+        if (authorities.size() == 1) {
+            return Set.of(authorities.get(0).getAuthority());
+        }
+        Set<String> names = new HashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return Set.copyOf(names);
+    }
+}
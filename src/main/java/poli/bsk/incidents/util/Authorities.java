@@ -0,0 +1,24 @@
+package poli.bsk.incidents.util;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Authorities {
+    private static final Map<String, String> ROLE_NAMES = new ConcurrentHashMap<>();
+    private static final Map<String, GrantedAuthority> ROLE_AUTHORITIES = new ConcurrentHashMap<>();
+
+    private Authorities() {
+    }
+
+    public static String roleName(String role) {
+        return ROLE_NAMES.computeIfAbsent(role, r -> ("ROLE_" + r.toUpperCase(Locale.ROOT)).intern());
+    }
+
+    public static GrantedAuthority role(String role) {
+        return ROLE_AUTHORITIES.computeIfAbsent(roleName(role), SimpleGrantedAuthority::new);
+    }
+}
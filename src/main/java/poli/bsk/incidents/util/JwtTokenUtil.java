@@ -1,5 +1,7 @@
 package poli.bsk.incidents.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
@@ -8,44 +10,23 @@ import org.springframework.stereotype.Component;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenUtil {
+    private static final Set<String> DEFAULT_ROLES = Set.of(Authorities.roleName("USER"));
 
-    public Set<String> extractRoles(Jwt jwt) {
-        Set<String> roles = new HashSet<>();
-
-        if (jwt.hasClaim("roles")) {
-            try {
-                List<String> jwtRoles = jwt.getClaimAsStringList("roles");
-                if (jwtRoles != null) {
-                    roles.addAll(jwtRoles);
-                }
-            } catch (Exception e) {
-            }
-        }
-
-        if (jwt.hasClaim("scp")) {
-            try {
-                String scope = jwt.getClaimAsString("scp");
-                if (scope != null) {
-                    String[] scopes = scope.split(" ");
-                    for (String s : scopes) {
-                        if (!s.isEmpty()) {
-                            roles.add("ROLE_" + s.toUpperCase());
-                        }
-                    }
-                }
-            } catch (Exception e) {
-            }
-        }
+    private final Map<String, String> scopeRoles = new ConcurrentHashMap<>();
+    private final Cache<Jwt, Set<String>> rolesByToken = Caffeine.newBuilder()
+            .weakKeys()
+            .maximumSize(10_000)
+            .build();
 
-        if (roles.isEmpty()) {
-            roles.add("ROLE_USER");
-        }
-
-        return roles;
+    public Set<String> extractRoles(Jwt jwt) {
+        return rolesByToken.get(jwt, this::computeRoles);
     }
 
     public String extractEmail(Jwt jwt) {
@@ -70,13 +51,63 @@ public class JwtTokenUtil {
         return jwt.getClaimAsString("preferred_username");
     }
 
+    public AuthenticatedUser buildIdentity(Jwt jwt, List<GrantedAuthority> authorities) {
+        return new AuthenticatedUser(extractEmail(jwt), extractName(jwt), jwt.getSubject(), extractRoles(jwt), authorities);
+    }
+
     public boolean hasRole(Authentication authentication, String role) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.hasRole(role);
+        }
+        String authorityName = Authorities.roleName(role);
         Collection<? extends GrantedAuthority> authorities = authentication.getAuthorities();
-        return authorities.stream()
-                .anyMatch(auth -> auth.getAuthority().equals("ROLE_" + role.toUpperCase()));
+        for (GrantedAuthority authority : authorities) {
+            if (authorityName.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public String getPrincipal(Jwt jwt) {
         return extractEmail(jwt);
     }
+
+    private Set<String> computeRoles(Jwt jwt) {
+        Set<String> roles = new HashSet<>();
+
+        if (jwt.hasClaim("roles")) {
+            try {
+                List<String> jwtRoles = jwt.getClaimAsStringList("roles");
+                if (jwtRoles != null) {
+                    roles.addAll(jwtRoles);
+                }
+            } catch (Exception e) {
+            }
+        }
+
+        if (jwt.hasClaim("scp")) {
+            try {
+                String scope = jwt.getClaimAsString("scp");
+                if (scope != null) {
+                    for (String s : scope.split(" ")) {
+                        if (!s.isEmpty()) {
+                            roles.add(scopeRoles.computeIfAbsent(s, this::scopeRole));
+                        }
+                    }
+                }
+            } catch (Exception e) {
+            }
+        }
+
+        if (roles.isEmpty()) {
+            return DEFAULT_ROLES;
+        }
+
+        return Set.copyOf(roles);
+    }
+
+    private String scopeRole(String scope) {
+        return ("ROLE_" + scope.toUpperCase(Locale.ROOT)).intern();
+    }
 }
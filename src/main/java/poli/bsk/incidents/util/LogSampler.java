@@ -0,0 +1,16 @@
+package poli.bsk.incidents.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public final class LogSampler {
+    private final long oneIn;
+    private final AtomicLong events = new AtomicLong();
+
+    public LogSampler(long oneIn) {
+        this.oneIn = Math.max(0, oneIn);
+    }
+
+    public boolean sample() {
+        return oneIn > 0 && events.getAndIncrement() % oneIn == 0;
+    }
+}
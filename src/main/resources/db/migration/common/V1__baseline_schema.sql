@@ -0,0 +1,50 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update); existing databases are baselined at this version
+create sequence users_seq start with 1 increment by 50;
+create sequence incidents_seq start with 1 increment by 50;
+
+create table users (
+    id bigint not null,
+    email varchar(255) not null,
+    name varchar(255),
+    role varchar(255),
+    constraint pk_users primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create table incidents (
+    id bigint not null,
+    version bigint default 0 not null,
+    title varchar(255),
+    description varchar(255),
+    reported_by varchar(255),
+    reported_at timestamp(6) with time zone,
+    status smallint,
+    priority smallint,
+    category smallint,
+    assigned_to varchar(255),
+    resolution varchar(255),
+    resolved_at timestamp(6) with time zone,
+    constraint pk_incidents primary key (id),
+    constraint ck_incidents_status check (status between 1 and 4),
+    constraint ck_incidents_priority check (priority between 1 and 4),
+    constraint ck_incidents_category check (category between 1 and 7)
+);
+
+create table incident_comments (
+    incident_id bigint not null,
+    comments varchar(255),
+    constraint fk_incident_comments_incident foreign key (incident_id) references incidents (id)
+);
+
+create table incident_attachments (
+    incident_id bigint not null,
+    attachments varchar(255),
+    constraint fk_incident_attachments_incident foreign key (incident_id) references incidents (id)
+);
+
+create index idx_incidents_status_reported_at on incidents (status, reported_at);
+create index idx_incidents_priority_status on incidents (priority, status);
+create index idx_incidents_category_status on incidents (category, status);
+create index idx_incidents_assigned_to_status on incidents (assigned_to, status);
+create index idx_incidents_reported_by_status on incidents (reported_by, status);
+create index idx_incidents_reported_at on incidents (reported_at);
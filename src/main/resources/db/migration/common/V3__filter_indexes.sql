@@ -0,0 +1,9 @@
+-- Keyset pages filter on one column and walk the id, so the id has to be part of the index
+create index idx_incidents_status_id on incidents (status, id);
+create index idx_incidents_priority_id on incidents (priority, id);
+create index idx_incidents_assigned_to_id on incidents (assigned_to, id);
+create index idx_incidents_reported_by_id on incidents (reported_by, id);
+
+-- Comments and attachments are batch-fetched by incident id; PostgreSQL does not index foreign keys on its own
+create index idx_incident_comments_incident_id on incident_comments (incident_id);
+create index idx_incident_attachments_incident_id on incident_attachments (incident_id);
@@ -0,0 +1,39 @@
+-- Resolved incidents past the retention age are moved here by IncidentArchiveService, keeping the hot table small
+create table incidents_archive (
+    id bigint not null,
+    version bigint not null,
+    title varchar(255),
+    description varchar(255),
+    reported_by varchar(255),
+    reported_at timestamp(6) with time zone,
+    status smallint,
+    priority smallint,
+    category smallint,
+    assigned_to varchar(255),
+    resolution varchar(255),
+    resolved_at timestamp(6) with time zone,
+    archived_at timestamp(6) with time zone not null,
+    constraint pk_incidents_archive primary key (id)
+);
+
+create table incident_archive_comments (
+    incident_id bigint not null,
+    comments varchar(255),
+    constraint fk_incident_archive_comments_incident foreign key (incident_id) references incidents_archive (id)
+);
+
+create table incident_archive_attachments (
+    incident_id bigint not null,
+    attachments varchar(255),
+    constraint fk_incident_archive_attachments_incident foreign key (incident_id) references incidents_archive (id)
+);
+
+create index idx_incidents_archive_status_id on incidents_archive (status, id);
+create index idx_incidents_archive_priority_id on incidents_archive (priority, id);
+create index idx_incidents_archive_assigned_to_id on incidents_archive (assigned_to, id);
+create index idx_incidents_archive_reported_by_id on incidents_archive (reported_by, id);
+create index idx_incident_archive_comments_incident_id on incident_archive_comments (incident_id);
+create index idx_incident_archive_attachments_incident_id on incident_archive_attachments (incident_id);
+
+-- The archival job selects candidates by resolution time
+create index idx_incidents_resolved_at on incidents (resolved_at);
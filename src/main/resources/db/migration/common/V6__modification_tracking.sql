@@ -0,0 +1,9 @@
+-- Last-Modified and ETag validators for conditional GETs
+alter table incidents add column updated_at timestamp(6) with time zone;
+update incidents set updated_at = coalesce(resolved_at, reported_at, current_timestamp);
+
+alter table incidents_archive add column updated_at timestamp(6) with time zone;
+update incidents_archive set updated_at = coalesce(resolved_at, reported_at, archived_at);
+
+alter table users add column version bigint default 0 not null;
+alter table users add column updated_at timestamp(6) with time zone;
@@ -0,0 +1,18 @@
+-- Uploaded files: metadata here, content in the content-addressed store (app.attachments.dir) keyed by sha256.
+-- No foreign key to incidents, so the rows stay valid when their incident moves to incidents_archive.
+create sequence attachments_seq start with 1 increment by 50;
+
+create table attachments (
+    id bigint not null,
+    incident_id bigint not null,
+    file_name varchar(255) not null,
+    content_type varchar(255) not null,
+    file_size bigint not null,
+    sha256 varchar(64) not null,
+    uploaded_by varchar(255),
+    uploaded_at timestamp(6) with time zone not null,
+    constraint pk_attachments primary key (id)
+);
+
+create index idx_attachments_incident_id on attachments (incident_id, id);
+create index idx_attachments_sha256 on attachments (sha256);
@@ -0,0 +1,8 @@
+-- Version of the incident collection behind the list ETags; bumped once by every transaction that changes incidents
+create table incident_collection_version (
+    id integer not null,
+    version bigint not null,
+    constraint pk_incident_collection_version primary key (id)
+);
+
+insert into incident_collection_version (id, version) values (1, 0);
@@ -0,0 +1,2 @@
+-- The inbox rebuild only reads open and in-progress incidents
+create index idx_incidents_active on incidents (id) where status is null or status in (1, 2);
@@ -0,0 +1,125 @@
+package poli.bsk.incidents.config;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingJwtDecoderTests {
+
+    private final AtomicInteger jwkRequests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer jwkServer;
+    private RSAKey signingKey;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+
+        jwkServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        jwkServer.createContext("/keys", exchange -> {
+            jwkRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            exchange.getResponseBody().write(jwks);
+            exchange.close();
+        });
+        jwkServer.start();
+
+        URI jwkSetUri = URI.create("http://127.0.0.1:" + jwkServer.getAddress().getPort() + "/keys");
+        decoder = new CachingJwtDecoder(
+                CachingJwtDecoder.nimbusJwtDecoder(CachingJwtDecoder.jwkSource(jwkSetUri.toURL(),
+                        Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofSeconds(5))),
+                100,
+                Duration.ofHours(1),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jwkServer.stop(0);
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatedTokensFromCache() throws Exception {
+        String token = sign(signingKey, "user@example.com", Instant.now().plusSeconds(600));
+
+        for (int i = 0; i < 5; i++) {
+            Jwt jwt = decoder.decode(token);
+            assertThat(jwt.getClaimAsString("email")).isEqualTo("user@example.com");
+        }
+
+        assertThat(verifications("success")).isEqualTo(1);
+        assertThat(jwkRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void reusesCachedJwkSetForDifferentTokens() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            decoder.decode(sign(signingKey, "user" + i + "@example.com", Instant.now().plusSeconds(600)));
+        }
+
+        assertThat(verifications("success")).isEqualTo(3);
+        assertThat(jwkRequests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsTokensSignedWithUnknownKeyWithoutCachingThem() throws Exception {
+        RSAKey foreignKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        String token = sign(foreignKey, "attacker@example.com", Instant.now().plusSeconds(600));
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+
+        assertThat(verifications("failure")).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsExpiredTokens() throws Exception {
+        String token = sign(signingKey, "user@example.com", Instant.now().minusSeconds(3600));
+
+        assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        assertThat(verifications("failure")).isEqualTo(1);
+    }
+
+    private long verifications(String outcome) {
+        return meterRegistry.get("security.jwt.verification").tag("outcome", outcome).timer().count();
+    }
+
+    private String sign(RSAKey key, String email, Instant expiresAt) throws JOSEException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject(email)
+                .claim("email", email)
+                .issueTime(new Date())
+                .expirationTime(Date.from(expiresAt))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+}
@@ -0,0 +1,58 @@
+package poli.bsk.incidents.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCountFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final QueryCountInspector inspector = new QueryCountInspector();
+    private final QueryCountFilter filter = new QueryCountFilter(inspector, meterRegistry, 20);
+
+    @Test
+    void countsStatementsOfTheRequestThread() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/incidents");
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        });
+
+        assertThat(summary().count()).isEqualTo(1);
+        assertThat(summary().totalAmount()).isEqualTo(2);
+        assertThat(inspector.inspect("select 3")).isEqualTo("select 3");
+        assertThat(summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void countsStatementsOfAsyncWorkWhenTheResponseCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/incidents");
+        request.setAsyncSupported(true);
+        FilterChain streaming = (req, res) -> {
+            req.startAsync();
+            inspector.inspect("select 1");
+            CompletableFuture.runAsync(inspector.propagate(() -> {
+                inspector.inspect("select 2");
+                inspector.inspect("select 3");
+            })).join();
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), streaming);
+
+        assertThat(meterRegistry.find("http.server.requests.queries").summary()).isNull();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        assertThat(summary().count()).isEqualTo(1);
+        assertThat(summary().totalAmount()).isEqualTo(3);
+    }
+
+    private DistributionSummary summary() {
+        return meterRegistry.get("http.server.requests.queries").summary();
+    }
+}
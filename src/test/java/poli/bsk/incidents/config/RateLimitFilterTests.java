@@ -0,0 +1,112 @@
+package poli.bsk.incidents.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import poli.bsk.incidents.util.Authorities;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void limitsEachPrincipalAndEndpointClassSeparately() {
+        RateLimitFilter filter = filter(10);
+
+        authenticate("alice@example.com", "USER");
+        assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(200);
+        assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(200);
+        MockHttpServletResponse rejected = send(filter, "GET", "/api/incidents", new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+        assertThat(status(filter, "POST", "/api/incidents")).isEqualTo(200);
+
+        authenticate("bob@example.com", "USER");
+        assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(200);
+
+        authenticate("root@example.com", "ADMIN");
+        for (int i = 0; i < 5; i++) {
+            assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(200);
+        }
+
+        authenticate("alice@example.com", "USER");
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(200);
+        assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(429);
+        assertThat(meterRegistry.get("http.server.requests.rejected")
+                .tags("reason", "rate-limit", "role", "user", "endpoint", "read").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shedsRequestsBeyondTheConcurrencyLimit() {
+        RateLimitFilter filter = filter(1);
+        authenticate("root@example.com", "ADMIN");
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        FilterChain slowChain = (request, response) -> nested[0] = send(filter, "GET", "/api/incidents", new MockFilterChain());
+        assertThat(send(filter, "GET", "/api/incidents", slowChain).getStatus()).isEqualTo(200);
+
+        assertThat(nested[0].getStatus()).isEqualTo(429);
+        assertThat(nested[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(meterRegistry.get("http.server.requests.admitted").gauge().value()).isZero();
+        assertThat(status(filter, "GET", "/api/incidents")).isEqualTo(200);
+    }
+
+    private RateLimitFilter filter(int maxConcurrentRequests) {
+        Map<String, String> properties = Map.of(
+                "roles.admin.read.capacity", "5",
+                "roles.admin.read.period", "1s",
+                "roles.user.read.capacity", "2",
+                "roles.user.read.period", "10s",
+                "roles.user.write.capacity", "1",
+                "roles.user.write.period", "10s");
+        Map<String, RateLimitFilter.RoleLimits> roles = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("roles", Bindable.mapOf(String.class, RateLimitFilter.RoleLimits.class))
+                .get();
+        return new RateLimitFilter(roles, List.of("/actuator/**"), maxConcurrentRequests, 100, Duration.ofMinutes(10),
+                meterRegistry, clock::get);
+    }
+
+    private static void authenticate(String email, String role) {
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                email, null, List.of(Authorities.role(role))));
+    }
+
+    private static int status(RateLimitFilter filter, String method, String uri) {
+        return send(filter, method, uri, new MockFilterChain()).getStatus();
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, FilterChain chain) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
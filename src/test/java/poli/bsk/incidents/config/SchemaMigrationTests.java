@@ -0,0 +1,136 @@
+package poli.bsk.incidents.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.hibernate.boot.model.naming.PhysicalNamingStrategySnakeCaseImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.model.User;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNoException;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({IncidentCodeMigration.class, BaselinedSchemaMigration.class})
+class SchemaMigrationTests {
+    // What ddl-auto=update created from the entities before Flyway took over
+    private static final List<String> BASELINE_SCHEMA = List.of(
+            "create table incidents (id bigint generated by default as identity, assigned_to varchar(255), "
+                    + "category varchar(255), description varchar(255), priority varchar(255), "
+                    + "reported_at timestamp(6) with time zone, reported_by varchar(255), resolution varchar(255), "
+                    + "resolved_at timestamp(6) with time zone, status varchar(255), title varchar(255), primary key (id))",
+            "create table incident_comments (incident_id bigint not null, comments varchar(255))",
+            "create table incident_attachments (incident_id bigint not null, attachments varchar(255))",
+            "create table users (id bigint generated by default as identity, email varchar(255) not null, "
+                    + "name varchar(255), role varchar(255), primary key (id))",
+            "alter table users add constraint uk_users_email unique (email)",
+            "alter table incident_comments add constraint fk_incident_comments foreign key (incident_id) references incidents",
+            "alter table incident_attachments add constraint fk_incident_attachments foreign key (incident_id) references incidents");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void migratesToAValidSchema() {
+        assertThat(Arrays.stream(flyway.info().applied()).map(MigrationInfo::getVersion).map(Object::toString))
+                .startsWith("1", "2", "3");
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThatNoException().isThrownBy(() -> entityManagerFactory.getSchemaManager().validate());
+        assertThat(jdbcTemplate.queryForList(
+                "select index_name from information_schema.indexes where table_name = 'incidents'", String.class))
+                .contains("idx_incidents_status_id", "idx_incidents_priority_id", "idx_incidents_assigned_to_id",
+                        "idx_incidents_reported_by_id");
+    }
+
+    @Test
+    void restartSkipsAppliedMigrations() {
+        assertThat(flyway.migrate().migrationsExecuted).isZero();
+        assertThat(entityManagerFactory.getProperties()).containsEntry("hibernate.hbm2ddl.auto", "validate");
+    }
+
+    @Test
+    void upgradesADatabaseCreatedByTheOldSchema() {
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:mem:baselined;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH", "sa", "", true);
+        try {
+            JdbcTemplate baselined = new JdbcTemplate(dataSource);
+            BASELINE_SCHEMA.forEach(baselined::execute);
+            for (int i = 0; i < 60; i++) {
+                baselined.update("insert into incidents (title, status, priority, category) values (?, ?, ?, ?)",
+                        "Incident " + i, i % 2 == 0 ? "Open" : "in progress", "high", "Phishing");
+            }
+            baselined.update("insert into incident_comments (incident_id, comments) values (1, 'first')");
+            baselined.update("insert into users (email, name, role) values ('admin@example.com', 'Admin', 'ADMIN')");
+
+            Flyway.configure().configuration(flyway.getConfiguration()).dataSource(dataSource).load().migrate();
+
+            assertThat(baselined.queryForObject("select max(version) from incidents", Long.class)).isZero();
+            assertThat(baselined.queryForObject("select count(*) from incidents where status = ?", Integer.class,
+                    IncidentStatus.IN_PROGRESS.getCode())).isEqualTo(30);
+            assertThat(baselined.queryForList(
+                    "select index_name from information_schema.indexes where table_name = 'incidents'", String.class))
+                    .contains("idx_incidents_status_reported_at", "idx_incidents_status_id");
+
+            EntityManagerFactory validated = entityManagerFactory(dataSource);
+            try {
+                EntityManager entityManager = validated.createEntityManager();
+                entityManager.getTransaction().begin();
+                Incident incident = new Incident();
+                incident.setTitle("After the upgrade");
+                entityManager.persist(incident);
+                User user = new User();
+                user.setEmail("user@example.com");
+                entityManager.persist(user);
+                entityManager.getTransaction().commit();
+                entityManager.close();
+                assertThat(incident.getId()).isGreaterThan(60L);
+                assertThat(user.getId()).isGreaterThan(1L);
+            } finally {
+                validated.close();
+            }
+        } finally {
+            dataSource.destroy();
+        }
+    }
+
+    private static EntityManagerFactory entityManagerFactory(SingleConnectionDataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("poli.bsk.incidents.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "validate",
+                "hibernate.dialect", "org.hibernate.dialect.H2Dialect",
+                "hibernate.physical_naming_strategy", PhysicalNamingStrategySnakeCaseImpl.class.getName(),
+                "hibernate.cache.use_second_level_cache", "false"));
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+}
@@ -0,0 +1,96 @@
+package poli.bsk.incidents.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import poli.bsk.incidents.dto.AttachmentDTO;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.User;
+import poli.bsk.incidents.repository.UserRepository;
+import poli.bsk.incidents.service.AttachmentService;
+import poli.bsk.incidents.service.IncidentService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:attachment-security;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+class AttachmentControllerSecurityTests {
+
+    @TempDir
+    static Path storeDir;
+
+    @DynamicPropertySource
+    static void attachmentDir(DynamicPropertyRegistry registry) {
+        registry.add("app.attachments.dir", storeDir::toString);
+    }
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtDecoder.decode("user-token")).thenReturn(jwt("user-token", "tech@example.com"));
+        when(jwtDecoder.decode("admin-token")).thenReturn(jwt("admin-token", "admin@example.com"));
+        if (userRepository.findByEmail("admin@example.com").isEmpty()) {
+            userRepository.save(new User("admin@example.com", "Admin", "ADMIN"));
+        }
+    }
+
+    @Test
+    void onlyAdminsMayDeleteAttachments() throws Exception {
+        IncidentDTO incident = new IncidentDTO();
+        incident.setTitle("Server room flooded");
+        incident.setReportedBy("tech@example.com");
+        Long id = incidentService.createIncident(incident).getId();
+        AttachmentDTO attachment = attachmentService.upload(id, "photo.jpg", "image/jpeg",
+                new ByteArrayInputStream("jpeg bytes".getBytes(StandardCharsets.UTF_8)), "tech@example.com").orElseThrow();
+        String url = "/api/incidents/" + id + "/attachments/" + attachment.getId();
+
+        mockMvc.perform(delete(url).header(HttpHeaders.AUTHORIZATION, "Bearer user-token"))
+                .andExpect(status().isForbidden());
+        assertThat(attachmentService.getAttachment(id, attachment.getId())).isPresent();
+
+        mockMvc.perform(delete(url).header(HttpHeaders.AUTHORIZATION, "Bearer admin-token"))
+                .andExpect(status().isNoContent());
+        assertThat(attachmentService.getAttachment(id, attachment.getId())).isEmpty();
+    }
+
+    private static Jwt jwt(String token, String email) {
+        return Jwt.withTokenValue(token).header("alg", "none").subject(email).claim("email", email).build();
+    }
+}
@@ -0,0 +1,145 @@
+package poli.bsk.incidents.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import poli.bsk.incidents.dto.AttachmentDTO;
+import poli.bsk.incidents.service.AttachmentService;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AttachmentControllerTests {
+
+    private static final String URL = "/api/incidents/1/attachments/2/content";
+    private static final String SHA256 = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final AttachmentService attachmentService = mock(AttachmentService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AttachmentDTO attachment = new AttachmentDTO();
+        attachment.setId(2L);
+        attachment.setIncidentId(1L);
+        attachment.setFileName("report.txt");
+        attachment.setContentType("text/plain");
+        attachment.setSize(CONTENT.length);
+        attachment.setSha256(SHA256);
+        when(attachmentService.getAttachment(1L, 2L)).thenReturn(Optional.of(attachment));
+        when(attachmentService.hasContent(attachment)).thenReturn(true);
+        when(attachmentService.contentPath(attachment)).thenReturn(Path.of("/store", SHA256));
+        doAnswer(invocation -> {
+            int position = Math.toIntExact(invocation.<Long>getArgument(1));
+            int count = Math.toIntExact(invocation.<Long>getArgument(2));
+            invocation.<WritableByteChannel>getArgument(3).write(ByteBuffer.wrap(CONTENT, position, count));
+            return null;
+        }).when(attachmentService).transfer(any(), anyLong(), anyLong(), any());
+        mockMvc = MockMvcBuilders.standaloneSetup(new AttachmentController(attachmentService)).build();
+    }
+
+    @Test
+    void servesTheWholeFileWithAValidator() throws Exception {
+        mockMvc.perform(get(URL))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + SHA256 + "\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void servesASingleRangeAsPartialContent() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().bytes(Arrays.copyOfRange(CONTENT, 2, 6)));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().bytes(Arrays.copyOfRange(CONTENT, 7, 10)));
+    }
+
+    @Test
+    void rejectsARangePastTheEnd() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        verify(attachmentService, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void servesTheWholeFileWhenIfRangeDoesNotMatch() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENT));
+
+        mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"" + SHA256 + "\""))
+                .andExpect(status().isPartialContent());
+    }
+
+    @Test
+    void answersAMatchingValidatorWithNotModified() throws Exception {
+        mockMvc.perform(get(URL).header(HttpHeaders.IF_NONE_MATCH, "\"" + SHA256 + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+        verify(attachmentService, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void headSendsTheHeadersWithoutTheBody() throws Exception {
+        mockMvc.perform(head(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().bytes(new byte[0]));
+        verify(attachmentService, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void handsTheRangeToTomcatSendfileWhenSupported() throws Exception {
+        MvcResult result = mockMvc.perform(get(URL)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(new byte[0]))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"))
+                .isEqualTo(Path.of("/store", SHA256).toString());
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(result.getRequest().getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+        verify(attachmentService, never()).transfer(any(), anyLong(), anyLong(), any());
+    }
+
+    @Test
+    void answersMissingAttachmentsWithNotFound() throws Exception {
+        mockMvc.perform(get("/api/incidents/1/attachments/3/content"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,139 @@
+package poli.bsk.incidents.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import poli.bsk.incidents.repository.IncidentRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// A real server, since the stream has to stay open while the changes are made. Streams still open at the end would
+// hold up a graceful shutdown, hence server.shutdown=immediate.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:changes;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "server.shutdown=immediate",
+        "app.incidents.changes.heartbeat-interval=1h"
+})
+class IncidentChangeStreamTests {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtDecoder.decode(anyString())).thenReturn(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("tech")
+                .claim("email", "tech@example.com")
+                .build());
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).responseTimeout(TIMEOUT).build();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void eachSubscriberOnlyHearsAboutIncidentsInItsView() {
+        Flux<ServerSentEvent<Map<String, Object>>> bob = subscribe("bob@example.com");
+        Flux<ServerSentEvent<Map<String, Object>>> carol = subscribe("carol@example.com");
+
+        Number flooded = create("Server room flooded");
+        Number phishing = create("Phishing mail to finance");
+        assign(flooded, "bob@example.com");
+        assign(phishing, "carol@example.com");
+        assign(flooded, "carol@example.com");
+
+        // Bob also hears about the incident that leaves his view, so he can drop it
+        StepVerifier.create(bob.take(2))
+                .expectNextMatches(event -> isUpdate(event, flooded, "bob@example.com"))
+                .expectNextMatches(event -> isUpdate(event, flooded, "carol@example.com"))
+                .expectComplete()
+                .verify(TIMEOUT);
+        StepVerifier.create(carol.take(2))
+                .expectNextMatches(event -> isUpdate(event, phishing, "carol@example.com"))
+                .expectNextMatches(event -> isUpdate(event, flooded, "carol@example.com"))
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void theStreamNeedsAnAuthenticatedPrincipal() {
+        client.get().uri("/api/incidents/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    private Flux<ServerSentEvent<Map<String, Object>>> subscribe(String assignedTo) {
+        return client.get().uri("/api/incidents/changes?assignedTo={assignedTo}", assignedTo)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Map<String, Object>>>() {})
+                .getResponseBody()
+                .filter(event -> event.event() != null);
+    }
+
+    private Number create(String title) {
+        Map<String, Object> created = client.post().uri("/api/incidents")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("title", title, "reportedBy", "reporter@example.com"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .returnResult().getResponseBody();
+        return (Number) created.get("id");
+    }
+
+    private void assign(Number id, String assignedTo) {
+        client.put().uri("/api/incidents/{id}", id)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("assignedTo", assignedTo))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isUpdate(ServerSentEvent<Map<String, Object>> event, Number id, String assignedTo) {
+        Map<String, Object> incident = (Map<String, Object>) event.data().get("incident");
+        return "UPDATED".equals(event.event())
+                && id.longValue() == ((Number) event.data().get("incidentId")).longValue()
+                && assignedTo.equals(incident.get("assignedTo"));
+    }
+}
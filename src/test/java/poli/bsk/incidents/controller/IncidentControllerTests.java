@@ -0,0 +1,194 @@
+package poli.bsk.incidents.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.service.IncidentService;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+// A real Tomcat, since response compression is done by the connector and not by MockMvc
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:controller;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class IncidentControllerTests {
+
+    private static final ObjectMapper JSON = JsonMapper.builder().build();
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() {
+        when(jwtDecoder.decode(anyString())).thenReturn(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("tech")
+                .claim("email", "tech@example.com")
+                .build());
+        for (int i = 0; i < 30; i++) {
+            IncidentDTO dto = new IncidentDTO();
+            dto.setTitle("Phishing mail reported from the finance department #" + i);
+            dto.setReportedBy("reporter@example.com");
+            incidentService.createIncident(dto);
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void compressesListsAndRevalidatesThemWithAWeakTag() throws Exception {
+        HttpResponse<byte[]> response = get("/api/incidents", Map.of(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+        assertThat(vary(response)).contains("accept", "accept-encoding");
+        String tag = response.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+        assertThat(tag).startsWith("W/\"");
+        assertThat(items(JSON, gunzip(response.body()))).hasSize(30);
+
+        HttpResponse<byte[]> revalidated = get("/api/incidents", Map.of(HttpHeaders.IF_NONE_MATCH, tag));
+        assertThat(revalidated.statusCode()).isEqualTo(304);
+        assertThat(vary(revalidated)).contains("accept");
+    }
+
+    @Test
+    void projectionsGetTheirOwnTag() throws Exception {
+        HttpResponse<byte[]> summaries = get("/api/incidents", Map.of());
+        HttpResponse<byte[]> projected = get("/api/incidents?fields=id,title", Map.of());
+        HttpResponse<byte[]> details = get("/api/incidents?view=full", Map.of());
+
+        List<Map<String, Object>> items = items(JSON, projected.body());
+        assertThat(items).hasSize(30).allSatisfy(item -> assertThat(item).containsOnlyKeys("id", "title"));
+        assertThat(List.of(tag(summaries), tag(projected), tag(details))).doesNotHaveDuplicates();
+        assertThat(get("/api/incidents?fields=id,title", Map.of(HttpHeaders.IF_NONE_MATCH, tag(summaries))).statusCode())
+                .isEqualTo(200);
+
+        Object id = items.get(0).get("id");
+        HttpResponse<byte[]> incident = get("/api/incidents/" + id, Map.of());
+        HttpResponse<byte[]> incidentFields = get("/api/incidents/" + id + "?fields=id,status", Map.of());
+        assertThat(tag(incident)).isEqualTo("W/\"0\"");
+        assertThat(tag(incidentFields)).startsWith("W/\"0-").isNotEqualTo(tag(incident));
+        assertThat(JSON.readValue(incidentFields.body(), new TypeReference<Map<String, Object>>() {}))
+                .containsOnlyKeys("id", "status");
+        assertThat(get("/api/incidents/" + id, Map.of(HttpHeaders.IF_NONE_MATCH, tag(incident))).statusCode()).isEqualTo(304);
+    }
+
+    @Test
+    void servesTheSameListAsCborAndSmile() throws Exception {
+        List<Map<String, Object>> json = items(JSON, get("/api/incidents", Map.of()).body());
+
+        HttpResponse<byte[]> cbor = get("/api/incidents", Map.of(HttpHeaders.ACCEPT, "application/cbor"));
+        assertThat(cbor.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(type -> assertThat(type).startsWith("application/cbor"));
+        assertThat(items(CBORMapper.builder().build(), cbor.body())).isEqualTo(json);
+
+        HttpResponse<byte[]> smile = get("/api/incidents", Map.of(HttpHeaders.ACCEPT, "application/x-jackson-smile"));
+        assertThat(smile.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(type -> assertThat(type).startsWith("application/x-jackson-smile"));
+        assertThat(items(SmileMapper.builder().build(), smile.body())).isEqualTo(json);
+    }
+
+    @Test
+    void theTagOfAnyGetIsAValidIfMatch() throws Exception {
+        Object id = items(JSON, get("/api/incidents", Map.of()).body()).get(0).get("id");
+        String detail = tag(get("/api/incidents/" + id, Map.of()));
+
+        HttpResponse<byte[]> patched = patch("/api/incidents/" + id, "{\"priority\":\"HIGH\"}", Map.of(HttpHeaders.IF_MATCH, detail));
+        assertThat(patched.statusCode()).isEqualTo(200);
+        assertThat(tag(patched)).isEqualTo("W/\"1\"").isEqualTo(tag(get("/api/incidents/" + id, Map.of())));
+
+        String projected = tag(get("/api/incidents/" + id + "?fields=id,priority", Map.of()));
+        assertThat(patch("/api/incidents/" + id, "{\"priority\":\"LOW\"}", Map.of(HttpHeaders.IF_MATCH, projected)).statusCode())
+                .isEqualTo(200);
+
+        String collection = tag(get("/api/incidents", Map.of()));
+        assertThat(patch("/api/incidents/" + id, "{\"priority\":\"HIGH\"}", Map.of(HttpHeaders.IF_MATCH, collection)).statusCode())
+                .isEqualTo(412);
+    }
+
+    private HttpResponse<byte[]> get(String path, Map<String, String> headers) throws IOException, InterruptedException {
+        return send(request(path, headers).GET());
+    }
+
+    private HttpResponse<byte[]> patch(String path, String json, Map<String, String> headers) throws IOException, InterruptedException {
+        return send(request(path, headers).header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(json)));
+    }
+
+    private HttpRequest.Builder request(String path, Map<String, String> headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token");
+        headers.forEach(request::header);
+        return request;
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static List<Map<String, Object>> items(ObjectMapper mapper, byte[] body) {
+        return mapper.readValue(body, new TypeReference<>() {});
+    }
+
+    private static List<String> vary(HttpResponse<?> response) {
+        return response.headers().allValues(HttpHeaders.VARY).stream()
+                .flatMap(value -> Arrays.stream(value.split(",")))
+                .map(value -> value.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+
+    private static String tag(HttpResponse<?> response) {
+        return response.headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
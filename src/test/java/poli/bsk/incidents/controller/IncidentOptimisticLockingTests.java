@@ -0,0 +1,124 @@
+package poli.bsk.incidents.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.repository.IncidentRepository;
+import poli.bsk.incidents.service.IncidentService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:locking;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+class IncidentOptimisticLockingTests {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    private String url;
+
+    @BeforeEach
+    void setUp() {
+        when(jwtDecoder.decode(anyString())).thenReturn(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("tech")
+                .claim("email", "tech@example.com")
+                .build());
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle("Server room flooded");
+        dto.setReportedBy("reporter@example.com");
+        url = "/api/incidents/" + incidentService.createIncident(dto).getId();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void aMatchingIfMatchAppliesThePatchAndReturnsTheNewTag() throws Exception {
+        String tag = currentTag();
+
+        String updated = mockMvc.perform(withJson(patch(url), "{\"title\":\"Server room dried out\"}").header(HttpHeaders.IF_MATCH, tag))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertThat(updated).isNotEqualTo(tag).isEqualTo(currentTag());
+        assertThat(title()).isEqualTo("Server room dried out");
+    }
+
+    @Test
+    void aStaleIfMatchIsRejected() throws Exception {
+        String tag = currentTag();
+        mockMvc.perform(withJson(patch(url), "{\"title\":\"Server room dried out\"}").header(HttpHeaders.IF_MATCH, tag))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(withJson(patch(url), "{\"title\":\"Server room still flooded\"}").header(HttpHeaders.IF_MATCH, tag))
+                .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(withJson(post(url + "/comments"), "{\"text\":\"Pumps are running\"}").header(HttpHeaders.IF_MATCH, tag))
+                .andExpect(status().isPreconditionFailed());
+
+        assertThat(title()).isEqualTo("Server room dried out");
+    }
+
+    @Test
+    void aPatchWithoutIfMatchIsAlwaysApplied() throws Exception {
+        String tag = currentTag();
+        mockMvc.perform(withJson(patch(url), "{\"title\":\"Server room dried out\"}"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(withJson(patch(url), "{\"title\":\"Server room flooded again\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(currentTag()).isNotEqualTo(tag);
+        assertThat(title()).isEqualTo("Server room flooded again");
+    }
+
+    private String currentTag() throws Exception {
+        return mockMvc.perform(get(url).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private String title() {
+        return incidentRepository.findAll().get(0).getTitle();
+    }
+
+    private static MockHttpServletRequestBuilder withJson(MockHttpServletRequestBuilder request, String json) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer token").contentType(MediaType.APPLICATION_JSON).content(json);
+    }
+}
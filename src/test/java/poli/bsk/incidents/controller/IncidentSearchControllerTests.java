@@ -0,0 +1,147 @@
+package poli.bsk.incidents.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureMockMvc
+class IncidentSearchControllerTests {
+
+    @MockitoBean
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    private Instant before;
+    private Instant after;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jwtDecoder.decode(anyString())).thenReturn(Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject("tech")
+                .claim("email", "tech@example.com")
+                .build());
+        before = Instant.now().minusSeconds(1);
+        create("Phishing mail to finance", "HIGH", "PHISHING", "alice@example.com", "bob@example.com");
+        create("Phishing mail to HR", "HIGH", "PHISHING", "alice@example.com", null);
+        create("Phishing call to help desk", "LOW", "PHISHING", "carol@example.com", "bob@example.com");
+        create("Malware on laptop", "HIGH", "MALWARE", "alice@example.com", null);
+        create("Phishing mail to sales", "HIGH", "PHISHING", "carol@example.com", null);
+        after = Instant.now().plusSeconds(1);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void combinesEveryGivenFilter() throws Exception {
+        search("priority=HIGH&category=PHISHING")
+                .andExpect(jsonPath("$.page.totalElements").value(3))
+                .andExpect(jsonPath("$.content[*].title").value(containsInAnyOrder(
+                        "Phishing mail to finance", "Phishing mail to HR", "Phishing mail to sales")));
+        search("priority=HIGH&category=PHISHING&reportedBy=alice@example.com&status=OPEN")
+                .andExpect(jsonPath("$.content[*].title").value(containsInAnyOrder("Phishing mail to HR")));
+        search("assignedTo=bob@example.com&status=IN_PROGRESS&priority=LOW")
+                .andExpect(jsonPath("$.content[*].title").value(containsInAnyOrder("Phishing call to help desk")));
+        search("category=MALWARE&reportedBy=carol@example.com")
+                .andExpect(jsonPath("$.page.totalElements").value(0))
+                .andExpect(jsonPath("$.content").value(empty()));
+    }
+
+    @Test
+    void filtersByTheReportedRange() throws Exception {
+        search("reportedFrom=" + before + "&reportedTo=" + after + "&category=PHISHING")
+                .andExpect(jsonPath("$.page.totalElements").value(4));
+        search("reportedFrom=" + after)
+                .andExpect(jsonPath("$.page.totalElements").value(0));
+        search("reportedTo=" + before)
+                .andExpect(jsonPath("$.page.totalElements").value(0));
+    }
+
+    @Test
+    void emptyFiltersMatchEverything() throws Exception {
+        search("")
+                .andExpect(jsonPath("$.page.totalElements").value(5));
+        search("status=&priority=&assignedTo=&reportedBy=")
+                .andExpect(jsonPath("$.page.totalElements").value(5));
+    }
+
+    @Test
+    void pagesAndSortsTheFilteredResults() throws Exception {
+        search("category=PHISHING&size=3&sort=id,asc")
+                .andExpect(jsonPath("$.page.totalElements").value(4))
+                .andExpect(jsonPath("$.page.totalPages").value(2))
+                .andExpect(jsonPath("$.content[*].title").value(contains(
+                        "Phishing mail to finance", "Phishing mail to HR", "Phishing call to help desk")));
+        search("category=PHISHING&size=3&page=1&sort=id,asc")
+                .andExpect(jsonPath("$.page.number").value(1))
+                .andExpect(jsonPath("$.content[*].title").value(contains("Phishing mail to sales")));
+        search("reportedBy=alice@example.com&size=2&sort=id,desc")
+                .andExpect(jsonPath("$.page.totalElements").value(3))
+                .andExpect(jsonPath("$.content[*].title").value(contains("Malware on laptop", "Phishing mail to HR")));
+
+        mockMvc.perform(get("/api/incidents/search?sort=title").header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions search(String query) throws Exception {
+        return mockMvc.perform(get("/api/incidents/search?" + query).header(HttpHeaders.AUTHORIZATION, "Bearer token"))
+                .andExpect(status().isOk());
+    }
+
+    // An assigned incident is also moved to IN_PROGRESS
+    private void create(String title, String priority, String category, String reportedBy, String assignedTo) throws Exception {
+        String json = "{\"title\":\"" + title + "\",\"priority\":\"" + priority + "\",\"category\":\"" + category
+                + "\",\"reportedBy\":\"" + reportedBy + "\"}";
+        String created = mockMvc.perform(post("/api/incidents").header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                        .contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        if (assignedTo != null) {
+            Number id = JsonPath.read(created, "$.id");
+            mockMvc.perform(put("/api/incidents/" + id).header(HttpHeaders.AUTHORIZATION, "Bearer token")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"status\":\"IN_PROGRESS\",\"assignedTo\":\"" + assignedTo + "\"}"))
+                    .andExpect(status().isOk());
+        }
+    }
+}
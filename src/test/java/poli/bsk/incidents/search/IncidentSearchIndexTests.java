@@ -0,0 +1,84 @@
+package poli.bsk.incidents.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncidentSearchIndexTests {
+
+    private final IncidentSearchIndex index = new IncidentSearchIndex();
+
+    @Test
+    void tokenizesOnLettersAndDigitsOnly() {
+        assertThat(IncidentSearchIndex.tokenize("VPN-Gateway down: 502s on eu_west (Zürich)!"))
+                .containsExactly("vpn", "gateway", "down", "502s", "on", "eu", "west", "zürich");
+        assertThat(IncidentSearchIndex.tokenize("a B c")).isEmpty();
+        assertThat(IncidentSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        index.index(1L, "Printer jammed", "The phishing training was postponed", null);
+        index.index(2L, "Phishing mail", "Reported by the finance department", null);
+
+        assertThat(ids(index.search("phishing", 0, 10))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void ranksByTheNumberOfMatchingTermsAndMatchesComments() {
+        index.index(1L, "Server room flooded", "Water under the raised floor", null);
+        index.index(2L, "Server restarted", "Planned maintenance", null);
+        index.index(3L, "Badge reader offline", "Door stays locked", List.of("The server room door is stuck"));
+
+        IncidentSearchIndex.Results results = index.search("server room flooded", 0, 10);
+
+        assertThat(results.getTotal()).isEqualTo(3);
+        assertThat(ids(results)).containsExactly(1L, 3L, 2L);
+        assertThat(results.getHits()).extracting(IncidentSearchIndex.Hit::getScore).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+        assertThat(index.search("elevator", 0, 10).getTotal()).isZero();
+    }
+
+    @Test
+    void reindexingReplacesTheOldTermsAndRemovingDropsTheDocument() {
+        index.index(1L, "Phishing mail", "Finance department", null);
+        index.index(2L, "Phishing call", "Help desk", null);
+
+        index.index(1L, "Malware on laptop", "Finance department", null);
+        assertThat(ids(index.search("phishing", 0, 10))).containsExactly(2L);
+        assertThat(ids(index.search("malware", 0, 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(2);
+
+        index.remove(2L);
+        index.remove(42L);
+        assertThat(index.search("phishing", 0, 10).getTotal()).isZero();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.clear();
+        assertThat(index.search("malware", 0, 10).getHits()).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void pagesThroughHitsWithOffsetAndLimit() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(id, "Phishing mail #" + id, null, null);
+        }
+
+        IncidentSearchIndex.Results first = index.search("phishing", 0, 2);
+        IncidentSearchIndex.Results last = index.search("phishing", 4, 2);
+
+        // Equal scores are ordered by id, newest first
+        assertThat(first.getTotal()).isEqualTo(5);
+        assertThat(ids(first)).containsExactly(5L, 4L);
+        assertThat(ids(index.search("phishing", 2, 2))).containsExactly(3L, 2L);
+        assertThat(last.getTotal()).isEqualTo(5);
+        assertThat(ids(last)).containsExactly(1L);
+        assertThat(index.search("phishing", 10, 2).getHits()).isEmpty();
+    }
+
+    private static List<Long> ids(IncidentSearchIndex.Results results) {
+        return results.getHits().stream().map(IncidentSearchIndex.Hit::getId).toList();
+    }
+}
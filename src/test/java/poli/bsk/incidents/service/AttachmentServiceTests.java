@@ -0,0 +1,175 @@
+package poli.bsk.incidents.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import poli.bsk.incidents.dto.AttachmentDTO;
+import poli.bsk.incidents.dto.IncidentDTO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.attachments.max-size=1KB"
+})
+@Import({IncidentService.class, AttachmentService.class, AttachmentStore.class})
+class AttachmentServiceTests {
+
+    @TempDir
+    static Path storeDir;
+
+    @DynamicPropertySource
+    static void attachmentDir(DynamicPropertyRegistry registry) {
+        registry.add("app.attachments.dir", storeDir::toString);
+    }
+
+    @Autowired
+    private AttachmentService attachmentService;
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Test
+    void deduplicatesContentAndServesByteRanges() throws IOException {
+        Long id = create();
+        AttachmentDTO first = upload(id, "trace.log", "0123456789");
+        List<Path> stored = storedFiles();
+        AttachmentDTO second = upload(id, "copy-of-trace.log", "0123456789");
+
+        assertThat(second.getSha256()).isEqualTo(first.getSha256());
+        assertThat(second.getId()).isNotEqualTo(first.getId());
+        assertThat(storedFiles()).isEqualTo(stored).contains(attachmentService.contentPath(first));
+        assertThat(attachmentService.getAttachments(id)).extracting(AttachmentDTO::getFileName)
+                .containsExactly("trace.log", "copy-of-trace.log");
+        assertThat(incidentService.getIncidentVersion(id).orElseThrow().getVersion()).isEqualTo(2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        attachmentService.transfer(first, 2, 4, Channels.newChannel(out));
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("2345");
+    }
+
+    @Test
+    void rejectsOversizedUploadsAndUnknownIncidents() throws IOException {
+        Long id = create();
+        assertThatThrownBy(() -> upload(id, "dump.bin", "x".repeat(2048)))
+                .isInstanceOf(AttachmentTooLargeException.class);
+        try (Stream<Path> incoming = Files.list(storeDir.resolve("incoming"))) {
+            assertThat(incoming).isEmpty();
+        }
+        assertThat(attachmentService.upload(-1L, "a.txt", "text/plain",
+                new ByteArrayInputStream(new byte[]{1}), "reporter@example.com")).isEmpty();
+        assertThat(attachmentService.getAttachments(id)).isEmpty();
+    }
+
+    @Test
+    void deletingTheIncidentDropsItsAttachments() throws IOException {
+        Long id = create();
+        AttachmentDTO attachment = upload(id, "photo.jpg", "jpeg bytes");
+
+        incidentService.deleteIncident(id);
+
+        assertThat(attachmentService.getAttachment(id, attachment.getId())).isEmpty();
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deletingTheLastReferenceRemovesTheContent() throws IOException {
+        Long id = create();
+        AttachmentDTO first = upload(id, "trace.log", "shared trace");
+        AttachmentDTO second = upload(id, "copy-of-trace.log", "shared trace");
+        Path content = attachmentService.contentPath(first);
+        try {
+            assertThat(attachmentService.deleteAttachment(id, first.getId())).isTrue();
+            assertThat(content).exists();
+
+            assertThat(attachmentService.deleteAttachment(id, second.getId())).isTrue();
+            assertThat(content).doesNotExist();
+        } finally {
+            incidentService.deleteIncident(id);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deletingTheIncidentRemovesContentNoOtherIncidentReferences() throws IOException {
+        Long flooded = create();
+        Long other = create();
+        try {
+            Path own = attachmentService.contentPath(upload(flooded, "photo.jpg", "flooded room"));
+            Path shared = attachmentService.contentPath(upload(flooded, "manual.pdf", "pump manual"));
+            upload(other, "manual.pdf", "pump manual");
+
+            incidentService.deleteIncident(flooded);
+            assertThat(own).doesNotExist();
+            assertThat(shared).exists();
+
+            incidentService.deleteIncident(other);
+            assertThat(shared).doesNotExist();
+        } finally {
+            incidentService.deleteIncident(flooded);
+            incidentService.deleteIncident(other);
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void aRolledBackUploadLeavesNoContentBehind() throws IOException {
+        Long id = create();
+        try {
+            Path kept = attachmentService.contentPath(upload(id, "trace.log", "already stored"));
+            List<Path> stored = storedFiles();
+
+            // A null content type fails the insert after the content has been moved into the store
+            assertThatThrownBy(() -> attachmentService.upload(id, "new.log", null,
+                    new ByteArrayInputStream("never stored".getBytes(StandardCharsets.UTF_8)), "reporter@example.com"))
+                    .isInstanceOf(NullPointerException.class);
+            assertThatThrownBy(() -> attachmentService.upload(id, "again.log", null,
+                    new ByteArrayInputStream("already stored".getBytes(StandardCharsets.UTF_8)), "reporter@example.com"))
+                    .isInstanceOf(NullPointerException.class);
+
+            assertThat(storedFiles()).isEqualTo(stored).contains(kept);
+            assertThat(attachmentService.getAttachments(id)).hasSize(1);
+            assertThat(incidentService.getIncidentVersion(id).orElseThrow().getVersion()).isEqualTo(1);
+            try (Stream<Path> incoming = Files.list(storeDir.resolve("incoming"))) {
+                assertThat(incoming).isEmpty();
+            }
+        } finally {
+            incidentService.deleteIncident(id);
+        }
+    }
+
+    private AttachmentDTO upload(Long id, String name, String content) throws IOException {
+        return attachmentService.upload(id, name, "text/plain",
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), "reporter@example.com").orElseThrow();
+    }
+
+    private Long create() {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle("Server room flooded");
+        dto.setReportedBy("reporter@example.com");
+        return incidentService.createIncident(dto).getId();
+    }
+
+    private static List<Path> storedFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(storeDir.toAbsolutePath().normalize())) {
+            return files.filter(Files::isRegularFile).filter(path -> !path.getFileName().toString().endsWith(".part")).toList();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package poli.bsk.incidents.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import poli.bsk.incidents.dto.CursorPage;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.ArchivedIncidentRepository;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.incidents.archive.max-age=30d",
+        "app.incidents.archive.chunk-size=2"
+})
+@Import({IncidentService.class, IncidentArchiveService.class})
+class IncidentArchiveServiceTests {
+
+    @Autowired
+    private IncidentArchiveService incidentArchiveService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private ArchivedIncidentRepository archivedIncidentRepository;
+
+    @Test
+    void movesOldResolvedIncidentsInChunks() {
+        Instant old = Instant.now().minus(Duration.ofDays(90));
+        List<Long> archivable = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            archivable.add(save(IncidentStatus.CLOSED, old).getId());
+        }
+        Long recent = save(IncidentStatus.RESOLVED, Instant.now().minus(Duration.ofDays(1))).getId();
+        Long reopened = save(IncidentStatus.IN_PROGRESS, old).getId();
+
+        assertThat(incidentArchiveService.archiveResolved()).isEqualTo(5);
+
+        assertThat(incidentRepository.findAll()).extracting(Incident::getId).containsExactlyInAnyOrder(recent, reopened);
+        assertThat(archivedIncidentRepository.findAllById(archivable)).hasSize(5);
+        IncidentDTO archived = incidentArchiveService.getIncidentById(archivable.get(0)).orElseThrow();
+        assertThat(archived.getComments()).containsExactly("root cause found");
+        assertThat(archived.getStatus()).isEqualTo(IncidentStatus.CLOSED);
+        assertThat(incidentArchiveService.archiveResolved()).isZero();
+    }
+
+    @Test
+    void mergesArchivedIncidentsIntoKeysetPagesOnlyWhenAsked() {
+        Instant old = Instant.now().minus(Duration.ofDays(90));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ids.add(save(i % 2 == 0 ? IncidentStatus.CLOSED : IncidentStatus.OPEN, i % 2 == 0 ? old : null).getId());
+        }
+        incidentArchiveService.archiveResolved();
+
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        do {
+            CursorPage<IncidentSummaryDTO> page = incidentArchiveService.getIncidentSummaries(IncidentFilter.ALL, null, after, 4);
+            page.getItems().forEach(summary -> seen.add(summary.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(incidentArchiveService.getIncidentDetails(IncidentFilter.STATUS, "CLOSED", null, 10).getItems())
+                .extracting(IncidentDTO::getId).containsExactly(ids.get(0), ids.get(2), ids.get(4));
+    }
+
+    @Test
+    void selectsOnlyTheRequestedFieldsFromHotAndArchivedIncidents() {
+        Long archived = save(IncidentStatus.CLOSED, Instant.now().minus(Duration.ofDays(90))).getId();
+        Long open = save(IncidentStatus.OPEN, null).getId();
+        Long closed = save(IncidentStatus.CLOSED, null).getId();
+        incidentArchiveService.archiveResolved();
+
+        CursorPage<Map<String, Object>> page = incidentArchiveService.getIncidentFields(IncidentFilter.STATUS, "CLOSED",
+                null, 10, List.of("title", "status"));
+
+        assertThat(page.getItems()).extracting(row -> row.get("id")).containsExactly(archived, closed);
+        assertThat(page.getItems()).allSatisfy(row -> assertThat(row)
+                .containsOnlyKeys("id", "title", "status")
+                .containsEntry("status", IncidentStatus.CLOSED));
+        assertThat(incidentArchiveService.getIncidentFields(IncidentFilter.ALL, null, archived, 1, List.of("priority"))
+                .getNextCursor()).isEqualTo(open);
+        assertThat(incidentArchiveService.getIncidentFieldsById(archived, List.of("resolution")).orElseThrow())
+                .containsOnlyKeys("id", "resolution").containsEntry("resolution", "replaced disk");
+        assertThatThrownBy(() -> incidentArchiveService.getIncidentFields(IncidentFilter.ALL, null, null, 10, List.of("comments")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Incident save(IncidentStatus status, Instant resolvedAt) {
+        return incidentRepository.saveAndFlush(new Incident("Disk failure", null, "reporter@example.com",
+                Instant.now(), status, IncidentPriority.LOW, IncidentCategory.SYSTEM_OUTAGE, null,
+                resolvedAt != null ? "replaced disk" : null, resolvedAt,
+                new ArrayList<>(List.of("root cause found")), new ArrayList<>()));
+    }
+}
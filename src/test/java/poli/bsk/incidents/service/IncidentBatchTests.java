@@ -0,0 +1,159 @@
+package poli.bsk.incidents.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import poli.bsk.incidents.dto.BatchItemResultDTO;
+import poli.bsk.incidents.dto.BatchResultDTO;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(IncidentService.class)
+class IncidentBatchTests {
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void reportsEachCreatedOrRejectedItemAtItsIndex() {
+        BatchResultDTO result = incidentService.createIncidents(List.of(
+                incident("Phishing mail", "reporter@example.com"),
+                incident(" ", "reporter@example.com"),
+                incident("Laptop stolen", null),
+                incident("Badge cloned", "reporter@example.com")));
+
+        assertThat(result.getItems())
+                .extracting(BatchItemResultDTO::getIndex, BatchItemResultDTO::getStatus, BatchItemResultDTO::getError)
+                .containsExactly(
+                        tuple(0, "CREATED", null),
+                        tuple(1, "FAILED", "title is required"),
+                        tuple(2, "FAILED", "reportedBy is required"),
+                        tuple(3, "CREATED", null));
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(incidentRepository.findAllById(List.of(result.getItems().get(0).getId(), result.getItems().get(3).getId())))
+                .hasSize(2)
+                .allSatisfy(incident -> assertThat(incident.getStatus()).isEqualTo(IncidentStatus.OPEN));
+    }
+
+    @Test
+    void reportsEachUpdatedOrRejectedItemAtItsIndex() {
+        List<Long> ids = create(4);
+        IncidentDTO stale = update(ids.get(2), "Stale");
+        stale.setVersion(7L);
+        IncidentDTO skipped = update(ids.get(3), null);
+        skipped.setStatus(IncidentStatus.RESOLVED);
+
+        BatchResultDTO result = incidentService.updateIncidents(List.of(
+                update(ids.get(0), "Renamed"),
+                update(null, "No id"),
+                update(-1L, "Missing"),
+                stale,
+                update(ids.get(1), "First"),
+                update(ids.get(1), "Second"),
+                skipped));
+
+        assertThat(result.getItems())
+                .extracting(BatchItemResultDTO::getIndex, BatchItemResultDTO::getStatus, BatchItemResultDTO::getError)
+                .containsExactly(
+                        tuple(0, "UPDATED", null),
+                        tuple(1, "FAILED", "id is required"),
+                        tuple(2, "FAILED", "incident not found"),
+                        tuple(3, "FAILED", "version conflict"),
+                        tuple(4, "FAILED", "duplicate id in batch"),
+                        tuple(5, "FAILED", "duplicate id in batch"),
+                        tuple(6, "FAILED", "cannot change status from OPEN to RESOLVED"));
+
+        entityManager.clear();
+        assertThat(incidentRepository.findById(ids.get(0)).orElseThrow().getTitle()).isEqualTo("Renamed");
+        assertThat(incidentRepository.findById(ids.get(0)).orElseThrow().getVersion()).isEqualTo(1);
+        assertThat(incidentRepository.findById(ids.get(1)).orElseThrow().getTitle()).isEqualTo("Incident 1");
+        assertThat(incidentRepository.findById(ids.get(2)).orElseThrow().getTitle()).isEqualTo("Incident 2");
+    }
+
+    @Test
+    void acceptsAnUpdateCarryingTheCurrentVersion() {
+        Long id = create(1).get(0);
+        IncidentDTO current = update(id, "Renamed");
+        current.setVersion(0L);
+
+        assertThat(incidentService.updateIncidents(List.of(current)).getItems())
+                .extracting(BatchItemResultDTO::getStatus)
+                .containsExactly("UPDATED");
+    }
+
+    @Test
+    void writesTheBatchInJdbcBatches() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        List<IncidentDTO> incidents = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            incidents.add(incident("Incident " + i, "reporter@example.com"));
+        }
+
+        statistics.clear();
+        BatchResultDTO created = incidentService.createIncidents(incidents);
+        entityManager.flush();
+        // Sequence calls for the pooled block, then one insert statement for all rows instead of one per row
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+
+        List<IncidentDTO> updates = new ArrayList<>();
+        for (BatchItemResultDTO item : created.getItems()) {
+            updates.add(update(item.getId(), "Renamed " + item.getIndex()));
+        }
+        entityManager.clear();
+        statistics.clear();
+        incidentService.updateIncidents(updates);
+        // One select for the incidents, one batch fetch each for comments and attachments, one update statement
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(40);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    private List<Long> create(int count) {
+        List<IncidentDTO> incidents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            incidents.add(incident("Incident " + i, "reporter@example.com"));
+        }
+        List<Long> ids = incidentService.createIncidents(incidents).getItems().stream()
+                .map(BatchItemResultDTO::getId)
+                .toList();
+        entityManager.flush();
+        entityManager.clear();
+        return ids;
+    }
+
+    private static IncidentDTO incident(String title, String reportedBy) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle(title);
+        dto.setReportedBy(reportedBy);
+        return dto;
+    }
+
+    private static IncidentDTO update(Long id, String title) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setId(id);
+        dto.setTitle(title);
+        return dto;
+    }
+}
@@ -0,0 +1,152 @@
+package poli.bsk.incidents.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.InboxItemDTO;
+import poli.bsk.incidents.dto.InboxPage;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Inbox updates run after commit, so these tests must not be wrapped in a rolled-back transaction
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({IncidentService.class, IncidentInboxService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IncidentInboxServiceTests {
+
+    private static final String REPORTER = "reporter@example.com";
+    private static final String ASSIGNEE = "tech@example.com";
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentInboxService incidentInboxService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @AfterEach
+    void cleanUp() {
+        SecurityContextHolder.clearContext();
+        incidentRepository.deleteAll();
+        incidentInboxService.rebuild();
+    }
+
+    @Test
+    void assignedInboxIsOrderedByPriorityThenAgeAndPagesByCursor() {
+        actAs(REPORTER);
+        Long low = assign(create("low", IncidentPriority.LOW));
+        Long firstHigh = assign(create("first high", IncidentPriority.HIGH));
+        Long critical = assign(create("critical", IncidentPriority.CRITICAL));
+        Long secondHigh = assign(create("second high", IncidentPriority.HIGH));
+
+        InboxPage first = incidentInboxService.getInbox(ASSIGNEE, InboxView.ASSIGNED, null, 2);
+        InboxPage second = incidentInboxService.getInbox(ASSIGNEE, InboxView.ASSIGNED, first.getNextCursor(), 2);
+
+        assertThat(ids(first.getItems())).containsExactly(critical, firstHigh);
+        assertThat(ids(second.getItems())).containsExactly(secondHigh, low);
+        assertThat(second.getNextCursor()).isNull();
+        assertThat(first.getItems()).allMatch(InboxItemDTO::isUnread);
+        assertThat(incidentInboxService.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    void changesByOthersAreUnreadAndClosedIncidentsLeaveTheInbox() {
+        actAs(REPORTER);
+        Long id = assign(create("printer", IncidentPriority.MEDIUM));
+        actAs(ASSIGNEE);
+        incidentInboxService.markRead(ASSIGNEE, id);
+        patch(id, IncidentStatus.IN_PROGRESS);
+
+        assertThat(incidentInboxService.getInbox(ASSIGNEE, InboxView.ASSIGNED, null, null).getItems())
+                .singleElement().satisfies(item -> assertThat(item.isUnread()).isFalse());
+        assertThat(incidentInboxService.getInbox(REPORTER, InboxView.REPORTED, null, null).getItems())
+                .singleElement().satisfies(item -> {
+                    assertThat(item.isUnread()).isTrue();
+                    assertThat(item.getStatus()).isEqualTo(IncidentStatus.IN_PROGRESS);
+                });
+
+        patch(id, IncidentStatus.RESOLVED);
+        patch(id, IncidentStatus.CLOSED);
+
+        assertThat(incidentInboxService.getInbox(ASSIGNEE, InboxView.ASSIGNED, null, null).getItems()).isEmpty();
+        assertThat(incidentInboxService.countUnread(REPORTER)).isZero();
+        assertThat(incidentInboxService.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    void verifyDetectsWritesThatBypassTheServiceAndRebuildRepairsThem() {
+        actAs(REPORTER);
+        Long id = create("database write", IncidentPriority.LOW);
+        incidentRepository.findById(id).ifPresent(incident -> {
+            incident.setAssignedTo(ASSIGNEE);
+            incidentRepository.save(incident);
+        });
+
+        assertThat(incidentInboxService.verify().getMismatchedIds()).containsExactly(id);
+
+        incidentInboxService.rebuild();
+
+        assertThat(incidentInboxService.verify().isConsistent()).isTrue();
+        assertThat(ids(incidentInboxService.getInbox(ASSIGNEE, InboxView.ASSIGNED, null, null).getItems()))
+                .containsExactly(id);
+    }
+
+    @Test
+    void eventsHeldBackByTheRebuildDoNotRevertIt() {
+        actAs(REPORTER);
+        Long id = assign(create("printer", IncidentPriority.MEDIUM));
+        IncidentDTO assigned = incidentService.getIncidentById(id).orElseThrow();
+        patch(id, IncidentStatus.IN_PROGRESS);
+
+        // As if the event had been held back by the rebuild's write lock
+        incidentInboxService.rebuild();
+        incidentInboxService.onIncidentChanged(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, id, null, assigned));
+
+        assertThat(incidentInboxService.getInbox(ASSIGNEE, InboxView.ASSIGNED, null, null).getItems())
+                .singleElement().satisfies(item -> assertThat(item.getStatus()).isEqualTo(IncidentStatus.IN_PROGRESS));
+        assertThat(incidentInboxService.verify().isConsistent()).isTrue();
+    }
+
+    private Long create(String title, IncidentPriority priority) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle(title);
+        dto.setReportedBy(REPORTER);
+        dto.setPriority(priority);
+        return incidentService.createIncident(dto).getId();
+    }
+
+    private Long assign(Long id) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setAssignedTo(ASSIGNEE);
+        incidentService.patchIncident(id, dto, null);
+        return id;
+    }
+
+    private void patch(Long id, IncidentStatus status) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setStatus(status);
+        incidentService.patchIncident(id, dto, null);
+    }
+
+    private static void actAs(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(email, null, List.of()));
+    }
+
+    private static List<Long> ids(List<InboxItemDTO> items) {
+        return items.stream().map(InboxItemDTO::getId).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package poli.bsk.incidents.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import poli.bsk.incidents.config.HibernateCacheConfig;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({IncidentService.class, HibernateCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IncidentSecondLevelCacheTests {
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void resetStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void neverServesAStaleIncidentAfterAWrite() {
+        Long id = create("VPN down");
+        assertThat(incidentService.getIncidentById(id).orElseThrow().getTitle()).isEqualTo("VPN down");
+        assertThat(incidentService.getIncidentById(id)).isPresent();
+        assertThat(statistics.getDomainDataRegionStatistics("incidents").getHitCount()).isPositive();
+
+        IncidentDTO update = incidentService.getIncidentById(id).orElseThrow();
+        update.setTitle("VPN down in Krakow");
+        incidentService.updateIncident(id, update);
+        assertThat(incidentService.getIncidentById(id).orElseThrow().getTitle()).isEqualTo("VPN down in Krakow");
+
+        assertThat(incidentService.addComment(id, "gateway restarted", null).getComments()).containsExactly("gateway restarted");
+        IncidentDTO commented = incidentService.getIncidentById(id).orElseThrow();
+        assertThat(commented.getComments()).containsExactly("gateway restarted");
+        assertThat(commented.getVersion()).isEqualTo(2);
+
+        incidentService.deleteIncident(id);
+        assertThat(incidentService.getIncidentById(id)).isEmpty();
+    }
+
+    @Test
+    void invalidatesCachedFinderResultsOnWrites() {
+        Long first = create("Printer jam");
+        assertThat(page()).extracting(IncidentSummaryDTO::getTitle).containsExactly("Printer jam");
+        assertThat(page()).hasSize(1);
+        assertThat(statistics.getQueryCacheHitCount()).isPositive();
+
+        Long second = create("Toner leak");
+        assertThat(page()).extracting(IncidentSummaryDTO::getId).containsExactly(first, second);
+
+        IncidentDTO update = incidentService.getIncidentById(second).orElseThrow();
+        update.setTitle("Toner leak on floor 2");
+        incidentService.updateIncident(second, update);
+        assertThat(page()).extracting(IncidentSummaryDTO::getTitle).containsExactly("Printer jam", "Toner leak on floor 2");
+
+        incidentService.deleteIncident(first);
+        assertThat(page()).extracting(IncidentSummaryDTO::getId).containsExactly(second);
+        incidentService.deleteIncident(second);
+    }
+
+    private List<IncidentSummaryDTO> page() {
+        return incidentService.getIncidentSummaries(IncidentFilter.ALL, null, null, 10).getItems();
+    }
+
+    private Long create(String title) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle(title);
+        dto.setReportedBy("reporter@example.com");
+        return incidentService.createIncident(dto).getId();
+    }
+}
@@ -0,0 +1,82 @@
+package poli.bsk.incidents.service;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import poli.bsk.incidents.dto.CursorPage;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentSummaryDTO;
+import poli.bsk.incidents.model.Incident;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(IncidentService.class)
+class IncidentServiceQueryCountTests {
+
+    private static final int PAGE_SIZE = 500;
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        List<Incident> incidents = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            incidents.add(new Incident("Incident " + i, "Description " + i, "reporter@example.com",
+                    Instant.now(), IncidentStatus.OPEN, IncidentPriority.MEDIUM, IncidentCategory.SYSTEM_OUTAGE, null, null, null,
+                    new ArrayList<>(List.of("first comment", "second comment")),
+                    new ArrayList<>(List.of("https://files.example.com/" + i))));
+        }
+        incidentRepository.saveAll(incidents);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void summaryPageIsASingleQuery() {
+        CursorPage<IncidentSummaryDTO> page = incidentService.getIncidentSummaries(IncidentFilter.ALL, null, null, PAGE_SIZE);
+
+        assertThat(page.getItems()).hasSize(PAGE_SIZE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullPageLoadsCollectionsInConstantQueries() {
+        CursorPage<IncidentDTO> page = incidentService.getIncidentDetails(IncidentFilter.ALL, null, null, PAGE_SIZE);
+
+        assertThat(page.getItems()).hasSize(PAGE_SIZE);
+        assertThat(page.getItems()).allSatisfy(dto -> {
+            assertThat(dto.getComments()).hasSize(2);
+            assertThat(dto.getAttachments()).hasSize(1);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,100 @@
+package poli.bsk.incidents.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.dto.IncidentStatsDTO;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Counter updates run after commit, so these tests must not be wrapped in a rolled-back transaction
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({IncidentService.class, IncidentStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IncidentStatsServiceTests {
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentStatsService incidentStatsService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @AfterEach
+    void cleanUp() {
+        incidentRepository.deleteAll();
+        incidentStatsService.rebuild();
+    }
+
+    @Test
+    void countersFollowCreatesUpdatesAndDeletes() {
+        Long phishing = create("Phishing mail", IncidentCategory.PHISHING);
+        Long outage = create("Mail server down", IncidentCategory.SYSTEM_OUTAGE);
+        patch(phishing, IncidentStatus.IN_PROGRESS, "tech@example.com");
+        incidentService.deleteIncident(outage);
+
+        IncidentStatsDTO stats = incidentStatsService.getStats();
+        assertThat(stats.getTotal()).isEqualTo(1);
+        assertThat(stats.getByStatus()).isEqualTo(Map.of("IN_PROGRESS", 1L));
+        assertThat(stats.getByCategory()).isEqualTo(Map.of("PHISHING", 1L));
+        assertThat(stats.getByAssignee()).isEqualTo(Map.of("tech@example.com", 1L));
+        assertThat(incidentStatsService.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    void repeatedAndOutOfOrderEventsAreIgnored() {
+        Long id = create("Phishing mail", IncidentCategory.PHISHING);
+        IncidentDTO created = incidentService.getIncidentById(id).orElseThrow();
+        IncidentDTO started = patch(id, IncidentStatus.IN_PROGRESS, "tech@example.com");
+
+        incidentStatsService.onIncidentChanged(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, id, null, started));
+        incidentStatsService.onIncidentChanged(new IncidentChangedEvent(IncidentChangedEvent.Type.CREATED, id, null, created));
+
+        assertThat(incidentStatsService.getStats().getByStatus()).isEqualTo(Map.of("IN_PROGRESS", 1L));
+        assertThat(incidentStatsService.verify().isConsistent()).isTrue();
+    }
+
+    @Test
+    void eventsForChangesTheRebuildAlreadyLoadedAreNotCountedTwice() {
+        Long id = create("Phishing mail", IncidentCategory.PHISHING);
+        IncidentDTO started = patch(id, IncidentStatus.IN_PROGRESS, "tech@example.com");
+
+        // As if the event had been held back by the rebuild's write lock
+        incidentStatsService.rebuild();
+        incidentStatsService.onIncidentChanged(new IncidentChangedEvent(IncidentChangedEvent.Type.UPDATED, id, null, started));
+
+        IncidentStatsDTO stats = incidentStatsService.getStats();
+        assertThat(stats.getTotal()).isEqualTo(1);
+        assertThat(stats.getByStatus()).isEqualTo(Map.of("IN_PROGRESS", 1L));
+        assertThat(incidentStatsService.verify().isConsistent()).isTrue();
+    }
+
+    private Long create(String title, IncidentCategory category) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle(title);
+        dto.setReportedBy("reporter@example.com");
+        dto.setPriority(IncidentPriority.HIGH);
+        dto.setCategory(category);
+        return incidentService.createIncident(dto).getId();
+    }
+
+    private IncidentDTO patch(Long id, IncidentStatus status, String assignedTo) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setStatus(status);
+        dto.setAssignedTo(assignedTo);
+        return incidentService.patchIncident(id, dto, null);
+    }
+}
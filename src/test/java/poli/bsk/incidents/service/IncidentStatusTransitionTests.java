@@ -0,0 +1,75 @@
+package poli.bsk.incidents.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentCategory;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(IncidentService.class)
+class IncidentStatusTransitionTests {
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void storesShortCodes() {
+        Long id = create();
+        incidentRepository.flush();
+
+        Map<String, Object> row = jdbcTemplate.queryForMap("select status, priority, category from incidents where id = ?", id);
+
+        assertThat(row.values()).containsExactly((int) IncidentStatus.OPEN.getCode(), (int) IncidentPriority.HIGH.getCode(),
+                (int) IncidentCategory.DATA_BREACH.getCode());
+        assertThat(incidentService.getIncidentSummaries(IncidentFilter.STATUS, "open", null, null).getItems())
+                .singleElement().satisfies(summary -> assertThat(summary.getCategory()).isEqualTo(IncidentCategory.DATA_BREACH));
+    }
+
+    @Test
+    void followsTheStatusStateMachine() {
+        Long id = create();
+
+        assertThatThrownBy(() -> incidentService.patchIncident(id, status(IncidentStatus.RESOLVED), null))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+
+        incidentService.patchIncident(id, status(IncidentStatus.IN_PROGRESS), null);
+        incidentService.patchIncident(id, status(IncidentStatus.RESOLVED), null);
+        IncidentDTO closed = incidentService.patchIncident(id, status(IncidentStatus.CLOSED), null);
+
+        assertThat(closed.getStatus()).isEqualTo(IncidentStatus.CLOSED);
+        assertThatThrownBy(() -> incidentService.patchIncident(id, status(IncidentStatus.OPEN), null))
+                .isInstanceOf(InvalidStatusTransitionException.class);
+    }
+
+    private Long create() {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle("Leaked credentials");
+        dto.setReportedBy("reporter@example.com");
+        dto.setPriority(IncidentPriority.HIGH);
+        dto.setCategory(IncidentCategory.DATA_BREACH);
+        return incidentService.createIncident(dto).getId();
+    }
+
+    private static IncidentDTO status(IncidentStatus status) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setStatus(status);
+        return dto;
+    }
+}
@@ -0,0 +1,111 @@
+package poli.bsk.incidents.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.EntityVersion;
+import poli.bsk.incidents.repository.IncidentRepository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({IncidentService.class, IncidentCollectionVersionTracker.class})
+class IncidentVersionTests {
+
+    @Autowired
+    private IncidentService incidentService;
+
+    @Autowired
+    private IncidentRepository incidentRepository;
+
+    @AfterEach
+    void cleanUp() {
+        incidentRepository.deleteAll();
+    }
+
+    @Test
+    void everyWriteMovesTheIncidentVersion() {
+        Long id = create("Printer on fire");
+        EntityVersion created = incidentService.getIncidentVersion(id).orElseThrow();
+        assertThat(created.getVersion()).isZero();
+        assertThat(created.getUpdatedAt()).isNotNull();
+
+        incidentService.addComment(id, "extinguished", null);
+        EntityVersion commented = incidentService.getIncidentVersion(id).orElseThrow();
+        assertThat(commented.getVersion()).isEqualTo(1);
+        assertThat(commented.getUpdatedAt()).isAfterOrEqualTo(created.getUpdatedAt());
+
+        IncidentDTO patch = new IncidentDTO();
+        patch.setStatus(IncidentStatus.IN_PROGRESS);
+        incidentService.patchIncident(id, patch, null);
+        assertThat(incidentService.getIncidentVersion(id).orElseThrow().getVersion()).isEqualTo(2);
+        assertThat(incidentService.getIncidentVersion(-1L)).isEmpty();
+    }
+
+    // The collection version is bumped right before commit, so this test must not run in a rolled-back transaction
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void collectionVersionChangesOnCreateUpdateCommentAndDelete() {
+        Long first = create("Phishing mail");
+        Long second = create("Laptop stolen");
+        List<String> tags = new ArrayList<>();
+        tags.add(tag());
+
+        incidentService.addComment(first, "reported to CERT", null);
+        tags.add(tag());
+
+        IncidentDTO patch = new IncidentDTO();
+        patch.setTitle("Laptop stolen from car");
+        incidentService.patchIncident(second, patch, null);
+        tags.add(tag());
+
+        incidentService.deleteIncident(first);
+        tags.add(tag());
+
+        create("Badge cloned");
+        tags.add(tag());
+
+        Set<String> distinct = new HashSet<>(tags);
+        assertThat(distinct).hasSameSizeAs(tags);
+        assertThat(tag()).isEqualTo(tags.get(tags.size() - 1));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void aBatchMovesTheCollectionVersionOnce() {
+        long before = incidentService.getCollectionVersion();
+        List<IncidentDTO> incidents = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            IncidentDTO dto = new IncidentDTO();
+            dto.setTitle("Incident " + i);
+            dto.setReportedBy("reporter@example.com");
+            incidents.add(dto);
+        }
+        incidentService.createIncidents(incidents);
+        incidentService.getIncidentSummaries(IncidentFilter.ALL, null, null, null);
+
+        assertThat(incidentService.getCollectionVersion()).isEqualTo(before + 1);
+    }
+
+    private String tag() {
+        return Long.toString(incidentService.getCollectionVersion());
+    }
+
+    private Long create(String title) {
+        IncidentDTO dto = new IncidentDTO();
+        dto.setTitle(title);
+        dto.setReportedBy("reporter@example.com");
+        return incidentService.createIncident(dto).getId();
+    }
+}
@@ -0,0 +1,39 @@
+package poli.bsk.incidents.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import poli.bsk.incidents.model.User;
+import poli.bsk.incidents.repository.UserRepository;
+import poli.bsk.incidents.util.Authorities;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrincipalCacheTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PrincipalCache principalCache = new PrincipalCache(userRepository, new SimpleMeterRegistry(), 100, Duration.ofMinutes(5));
+
+    @Test
+    void givesTokensWithoutAnEmailTheDefaultRole() {
+        assertThat(principalCache.getAuthorities(null)).containsExactly(Authorities.role("USER"));
+        verify(userRepository, never()).findByEmail(any());
+    }
+
+    @Test
+    void loadsEachPrincipalOnce() {
+        when(userRepository.findByEmail("admin@example.com"))
+                .thenReturn(Optional.of(new User("admin@example.com", "Admin", "ADMIN")));
+
+        assertThat(principalCache.getAuthorities("admin@example.com")).containsExactly(Authorities.role("ADMIN"));
+        assertThat(principalCache.getAuthorities("admin@example.com")).containsExactly(Authorities.role("ADMIN"));
+        verify(userRepository).findByEmail("admin@example.com");
+    }
+}
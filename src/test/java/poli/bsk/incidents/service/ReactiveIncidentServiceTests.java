@@ -0,0 +1,117 @@
+package poli.bsk.incidents.service;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.DialectResolver;
+import org.springframework.data.r2dbc.dialect.R2dbcDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import poli.bsk.incidents.config.ReactiveDataConfig;
+import poli.bsk.incidents.dto.IncidentDTO;
+import poli.bsk.incidents.model.IncidentPriority;
+import poli.bsk.incidents.model.IncidentStatus;
+import poli.bsk.incidents.repository.ReactiveIncidentRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveIncidentServiceTests {
+
+    private ReactiveIncidentService incidentService;
+
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1");
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        Flux.just(
+                        "create table incidents (id bigint primary key, version bigint not null default 0, title varchar(255), "
+                                + "description varchar(255), reported_by varchar(255), reported_at timestamp(6) with time zone, "
+                                + "status smallint, priority smallint, category smallint, assigned_to varchar(255), "
+                                + "resolution varchar(255), resolved_at timestamp(6) with time zone)",
+                        "create table incident_comments (incident_id bigint not null, comments varchar(255))",
+                        "create table incident_attachments (incident_id bigint not null, attachments varchar(255))")
+                .concatMap(sql -> databaseClient.sql(sql).then())
+                .blockLast();
+        for (long id = 1; id <= 5; id++) {
+            databaseClient.sql("insert into incidents (id, title, reported_by, reported_at, status, priority, assigned_to) "
+                            + "values (:id, :title, 'reporter@example.com', current_timestamp, :status, :priority, :assignedTo)")
+                    .bind("id", id)
+                    .bind("title", "Incident " + id)
+                    .bind("status", (id % 2 == 0 ? IncidentStatus.RESOLVED : IncidentStatus.OPEN).getCode())
+                    .bind("priority", IncidentPriority.HIGH.getCode())
+                    .bind("assignedTo", "agent" + (id % 2) + "@example.com")
+                    .then()
+                    .block();
+            databaseClient.sql("insert into incident_comments (incident_id, comments) values (:id, 'first'), (:id, 'second')")
+                    .bind("id", id)
+                    .then()
+                    .block();
+        }
+        databaseClient.sql("insert into incident_attachments (incident_id, attachments) values (1, 'https://files.example.com/1')")
+                .then()
+                .block();
+
+        R2dbcDialect dialect = DialectResolver.getDialect(connectionFactory);
+        R2dbcCustomConversions conversions = R2dbcCustomConversions.of(dialect);
+        R2dbcMappingContext mappingContext = new ReactiveDataConfig().r2dbcMappingContext(conversions);
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(databaseClient, dialect,
+                new MappingR2dbcConverter(mappingContext, conversions));
+        ReactiveIncidentRepository repository = new R2dbcRepositoryFactory(template)
+                .getRepository(ReactiveIncidentRepository.class);
+        incidentService = new ReactiveIncidentService(repository, databaseClient, 50, 500);
+    }
+
+    @Test
+    void pagesIncidentsWithCollections() {
+        StepVerifier.create(incidentService.getIncidents(IncidentFilter.ALL, null, null, 3).collectList())
+                .assertNext(page -> {
+                    assertThat(page).extracting(IncidentDTO::getId).containsExactly(1L, 2L, 3L);
+                    assertThat(page.get(0).getComments()).containsExactlyInAnyOrder("first", "second");
+                    assertThat(page.get(0).getAttachments()).containsExactly("https://files.example.com/1");
+                    assertThat(page.get(1).getAttachments()).isEmpty();
+                    assertThat(page.get(1).getStatus()).isEqualTo(IncidentStatus.RESOLVED);
+                    assertThat(page.get(1).getPriority()).isEqualTo(IncidentPriority.HIGH);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(incidentService.getIncidents(IncidentFilter.ALL, null, 3L, 3).map(IncidentDTO::getId))
+                .expectNext(4L, 5L)
+                .verifyComplete();
+    }
+
+    @Test
+    void filtersByColumn() {
+        StepVerifier.create(incidentService.getIncidents(IncidentFilter.STATUS, "RESOLVED", null, null).map(IncidentDTO::getId))
+                .expectNext(2L, 4L)
+                .verifyComplete();
+
+        StepVerifier.create(incidentService.getIncidents(IncidentFilter.ASSIGNED_TO, "agent1@example.com", null, null)
+                        .map(IncidentDTO::getId)
+                        .collectList())
+                .assertNext(ids -> assertThat(ids).isEqualTo(List.of(1L, 3L, 5L)))
+                .verifyComplete();
+    }
+
+    @Test
+    void looksUpById() {
+        StepVerifier.create(incidentService.getIncidentById(4L))
+                .assertNext(incident -> {
+                    assertThat(incident.getTitle()).isEqualTo("Incident 4");
+                    assertThat(incident.getComments()).hasSize(2);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(incidentService.getIncidentById(42L)).verifyComplete();
+    }
+}